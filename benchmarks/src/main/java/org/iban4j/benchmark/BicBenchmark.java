@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j.benchmark;
+
+import org.iban4j.Bic;
+import org.iban4j.Iban4jException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bic parsing, by share of invalid input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BicBenchmark {
+
+    private static final String[] VALID = {
+            "DEUTDEFF", "DEUTDEFF500", "NEDSZAJJXXX", "BNPAFRPPXXX", "UNCRITMM", "ABNANL2A"
+    };
+
+    private static final String[] INVALID = {
+            "DEUTDEF", "DEUTDEFF50", "deutdeff", "DEUT1EFF", "DEUTXXFF", "DEUTDE_F"
+    };
+
+    @Param({"0", "10", "50"})
+    public int invalidPercent;
+
+    private static final int SIZE = 1024;
+    private static final long SEED = 9362;
+
+    private String[] bics;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(SEED);
+        bics = new String[SIZE];
+        for (int i = 0; i < bics.length; i++) {
+            final String[] source = random.nextInt(100) < invalidPercent ? INVALID : VALID;
+            bics[i] = source[random.nextInt(source.length)];
+        }
+    }
+
+    @Benchmark
+    public Bic valueOf() {
+        try {
+            return Bic.valueOf(bics[index++ & (SIZE - 1)]);
+        } catch (Iban4jException e) {
+            return null;
+        }
+    }
+}
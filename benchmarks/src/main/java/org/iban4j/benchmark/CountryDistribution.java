@@ -0,0 +1,149 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j.benchmark;
+
+import org.iban4j.CountryCode;
+import org.iban4j.bban.BbanStructure;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Share of every supported country in a generated corpus.
+ */
+public final class CountryDistribution {
+
+    /**
+     * Supported countries of the Single Euro Payments Area.
+     */
+    private static final Set<CountryCode> SEPA = EnumSet.of(
+            CountryCode.AD, CountryCode.AT, CountryCode.BE, CountryCode.BG, CountryCode.CH,
+            CountryCode.CY, CountryCode.CZ, CountryCode.DE, CountryCode.DK, CountryCode.EE,
+            CountryCode.ES, CountryCode.FI, CountryCode.FR, CountryCode.GB, CountryCode.GI,
+            CountryCode.GR, CountryCode.HR, CountryCode.HU, CountryCode.IE, CountryCode.IS,
+            CountryCode.IT, CountryCode.LI, CountryCode.LT, CountryCode.LU, CountryCode.LV,
+            CountryCode.MC, CountryCode.MT, CountryCode.NL, CountryCode.NO, CountryCode.PL,
+            CountryCode.PT, CountryCode.RO, CountryCode.SE, CountryCode.SI, CountryCode.SK,
+            CountryCode.SM);
+
+    private static final double SEPA_SHARE = 0.9;
+
+    private final CountryCode[] countries;
+    private final double[] cumulativeWeights;
+
+    private CountryDistribution(final Map<CountryCode, Double> weights) {
+        this.countries = new CountryCode[weights.size()];
+        this.cumulativeWeights = new double[weights.size()];
+        double total = 0;
+        int i = 0;
+        for (final Map.Entry<CountryCode, Double> entry : weights.entrySet()) {
+            if (BbanStructure.forCountry(entry.getKey()) == null) {
+                throw new IllegalArgumentException(entry.getKey() + " is not supported.");
+            }
+            total += entry.getValue();
+            countries[i] = entry.getKey();
+            cumulativeWeights[i] = total;
+            i++;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Distribution must have a positive weight.");
+        }
+        for (i = 0; i < cumulativeWeights.length; i++) {
+            cumulativeWeights[i] /= total;
+        }
+    }
+
+    /**
+     * @param weights relative weight of every country.
+     * @return distribution with shares proportional to the weights.
+     */
+    public static CountryDistribution weighted(final Map<CountryCode, Double> weights) {
+        return new CountryDistribution(new EnumMap<CountryCode, Double>(weights));
+    }
+
+    /**
+     * @return distribution with an equal share of every supported country.
+     */
+    public static CountryDistribution uniform() {
+        final Map<CountryCode, Double> weights = new EnumMap<CountryCode, Double>(CountryCode.class);
+        for (final CountryCode countryCode : BbanStructure.supportedCountries()) {
+            weights.put(countryCode, 1.0);
+        }
+        return new CountryDistribution(weights);
+    }
+
+    /**
+     * @return distribution where 90% of ibans are from SEPA countries, and
+     *         the rest from the other supported countries.
+     */
+    public static CountryDistribution sepaHeavy() {
+        final Map<CountryCode, Double> weights = new EnumMap<CountryCode, Double>(CountryCode.class);
+        final int sepaCount = SEPA.size();
+        final int otherCount = BbanStructure.supportedCountries().size() - sepaCount;
+        for (final CountryCode countryCode : BbanStructure.supportedCountries()) {
+            weights.put(countryCode, SEPA.contains(countryCode)
+                    ? SEPA_SHARE / sepaCount : (1 - SEPA_SHARE) / otherCount);
+        }
+        return new CountryDistribution(weights);
+    }
+
+    /**
+     * @param countryCode the only country of the distribution.
+     * @return distribution holding ibans of one country.
+     */
+    public static CountryDistribution single(final CountryCode countryCode) {
+        final Map<CountryCode, Double> weights = new EnumMap<CountryCode, Double>(CountryCode.class);
+        weights.put(countryCode, 1.0);
+        return new CountryDistribution(weights);
+    }
+
+    /**
+     * Parses benchmark parameter values.
+     *
+     * @param value "uniform", "sepa" or an alpha-2 country code.
+     * @return the distribution.
+     */
+    public static CountryDistribution parse(final String value) {
+        if ("uniform".equalsIgnoreCase(value)) {
+            return uniform();
+        }
+        if ("sepa".equalsIgnoreCase(value)) {
+            return sepaHeavy();
+        }
+        final CountryCode countryCode = CountryCode.getByCode(value);
+        if (countryCode == null) {
+            throw new IllegalArgumentException("Unknown distribution: " + value);
+        }
+        return single(countryCode);
+    }
+
+    /**
+     * @return the countries of the distribution.
+     */
+    public CountryCode[] getCountries() {
+        return countries.clone();
+    }
+
+    CountryCode sample(final Random random) {
+        final int index = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+        final int country = index >= 0 ? index + 1 : -index - 1;
+        return countries[Math.min(country, countries.length - 1)];
+    }
+}
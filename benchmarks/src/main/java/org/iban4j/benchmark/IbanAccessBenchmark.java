@@ -0,0 +1,163 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j.benchmark;
+
+import org.iban4j.CountryCode;
+import org.iban4j.Iban;
+import org.iban4j.IbanFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Getters and formatting of valid ibans, by country distribution.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IbanAccessBenchmark {
+
+    @Param({"DE", "MT", "sepa", "uniform"})
+    public String distribution;
+
+    private Iban[] ibans;
+    private int mask;
+    private int index;
+    private final StringBuilder builder = new StringBuilder(64);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final IbanCorpus corpus = IbanCorpus.builder()
+                .distribution(CountryDistribution.parse(distribution))
+                .invalidRate(0)
+                .build();
+        ibans = corpus.toIbans();
+        if (Integer.bitCount(ibans.length) != 1) {
+            throw new IllegalStateException("Iban count must be a power of two: " + ibans.length);
+        }
+        mask = ibans.length - 1;
+    }
+
+    private Iban next() {
+        return ibans[index++ & mask];
+    }
+
+    /**
+     * Reads the formatted value cached by the iban after the first call, see
+     * {@link #formatDefault()} for the cost of formatting itself.
+     */
+    @Benchmark
+    public String toFormattedString() {
+        return next().toFormattedString();
+    }
+
+    @Benchmark
+    public StringBuilder formatDefault() {
+        builder.setLength(0);
+        return IbanFormat.Default.format(next(), builder);
+    }
+
+    @Benchmark
+    public StringBuilder formatMasked() {
+        builder.setLength(0);
+        return IbanFormat.Masked.format(next(), builder);
+    }
+
+    @Benchmark
+    public StringBuilder formatNational() {
+        builder.setLength(0);
+        return IbanFormat.National.format(next(), builder);
+    }
+
+    @Benchmark
+    public CountryCode getCountryCode() {
+        return next().getCountryCode();
+    }
+
+    @Benchmark
+    public String getCheckDigit() {
+        return next().getCheckDigit();
+    }
+
+    @Benchmark
+    public String getBban() {
+        return next().getBban();
+    }
+
+    @Benchmark
+    public String getBankCode() {
+        return next().getBankCode();
+    }
+
+    @Benchmark
+    public String getBranchCode() {
+        return next().getBranchCode();
+    }
+
+    @Benchmark
+    public String getAccountNumber() {
+        return next().getAccountNumber();
+    }
+
+    @Benchmark
+    public String getNationalCheckDigit() {
+        return next().getNationalCheckDigit();
+    }
+
+    @Benchmark
+    public String getAccountType() {
+        return next().getAccountType();
+    }
+
+    @Benchmark
+    public String getOwnerAccountType() {
+        return next().getOwnerAccountType();
+    }
+
+    @Benchmark
+    public String getIdentificationNumber() {
+        return next().getIdentificationNumber();
+    }
+
+    @Benchmark
+    public String getCurrency() {
+        return next().getCurrency();
+    }
+
+    @Benchmark
+    public String getReserveNumber() {
+        return next().getReserveNumber();
+    }
+
+    @Benchmark
+    public CharSequence bankCodeView() {
+        return next().bankCodeView();
+    }
+}
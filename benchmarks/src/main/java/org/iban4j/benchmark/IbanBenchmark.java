@@ -0,0 +1,140 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j.benchmark;
+
+import org.iban4j.Iban;
+import org.iban4j.Iban4jException;
+import org.iban4j.IbanFormat;
+import org.iban4j.IbanUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and validation of iban strings, by country distribution and share of
+ * invalid, space grouped and lower case input.
+ *
+ * The strict benchmarks reject every space grouped or lower case input, with
+ * such corpora they measure the exception path. The lenient benchmarks parse them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IbanBenchmark {
+
+    @Param({"DE", "MT", "sepa", "uniform"})
+    public String distribution;
+
+    @Param({"0", "10", "50"})
+    public int invalidPercent;
+
+    @Param({"0"})
+    public int formattedPercent;
+
+    @Param({"0"})
+    public int lowerCasePercent;
+
+    private String[] ibans;
+    private int mask;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final IbanCorpus corpus = IbanCorpus.builder()
+                .distribution(CountryDistribution.parse(distribution))
+                .invalidRate(invalidPercent / 100.0)
+                .formattedRate(formattedPercent / 100.0)
+                .lowerCaseRate(lowerCasePercent / 100.0)
+                .build();
+        ibans = corpus.getInputs();
+        mask = corpus.size() - 1;
+    }
+
+    private String next() {
+        return ibans[index++ & mask];
+    }
+
+    @Benchmark
+    public Iban valueOf() {
+        try {
+            return Iban.valueOf(next());
+        } catch (Iban4jException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Iban tryValueOf() {
+        return Iban.tryValueOf(next());
+    }
+
+    @Benchmark
+    public Iban valueOfLenient() {
+        try {
+            return Iban.valueOf(next(), IbanFormat.Lenient);
+        } catch (Iban4jException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public boolean validateLenient() {
+        try {
+            IbanUtil.validate(next(), IbanFormat.Lenient);
+            return true;
+        } catch (Iban4jException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean validate() {
+        try {
+            IbanUtil.validate(next());
+            return true;
+        } catch (Iban4jException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean check() {
+        return IbanUtil.check(next()).isValid();
+    }
+
+    @Benchmark
+    public String calculateCheckDigit() {
+        try {
+            return IbanUtil.calculateCheckDigit(next());
+        } catch (Iban4jException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j.benchmark;
+
+import org.iban4j.Iban;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iban generation from bban entries and random generation, by country distribution.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IbanBuilderBenchmark {
+
+    @Param({"DE", "MT", "sepa", "uniform"})
+    public String distribution;
+
+    private Iban[] templates;
+    private int mask;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final IbanCorpus corpus = IbanCorpus.builder()
+                .distribution(CountryDistribution.parse(distribution))
+                .invalidRate(0)
+                .build();
+        templates = corpus.toIbans();
+        if (Integer.bitCount(templates.length) != 1) {
+            throw new IllegalStateException("Iban count must be a power of two: " + templates.length);
+        }
+        mask = templates.length - 1;
+    }
+
+    @Benchmark
+    public Iban build() {
+        final Iban template = templates[index++ & mask];
+        return new Iban.Builder()
+                .countryCode(template.getCountryCode())
+                .bankCode(template.getBankCode())
+                .branchCode(template.getBranchCode())
+                .accountNumber(template.getAccountNumber())
+                .nationalCheckDigit(template.getNationalCheckDigit())
+                .accountType(template.getAccountType())
+                .ownerAccountType(template.getOwnerAccountType())
+                .identificationNumber(template.getIdentificationNumber())
+                .currency(template.getCurrency())
+                .reserveNumber(template.getReserveNumber())
+                .build();
+    }
+
+    @Benchmark
+    public Iban buildRandom() {
+        final Iban template = templates[index++ & mask];
+        return new Iban.Builder().countryCode(template.getCountryCode()).buildRandom();
+    }
+}
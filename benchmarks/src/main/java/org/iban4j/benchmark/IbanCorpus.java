@@ -0,0 +1,253 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j.benchmark;
+
+import org.iban4j.CountryCode;
+import org.iban4j.Iban;
+import org.iban4j.IbanUtil;
+import org.iban4j.bban.BbanStructure;
+import org.iban4j.bban.BbanStructureEntry;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Reproducible corpus of iban strings.
+ *
+ * Countries are drawn from a {@link CountryDistribution}, and every bban character is
+ * drawn from its entry's character type. Some ibans are then broken, printed in
+ * groups of four or lower cased. The same settings and seed always give the same corpus.
+ */
+public final class IbanCorpus {
+
+    private final String[] inputs;
+    private final CountryCode[] countries;
+    private final boolean[] valid;
+
+    private IbanCorpus(final Builder builder) {
+        final Random random = new Random(builder.seed);
+        inputs = new String[builder.size];
+        countries = new CountryCode[builder.size];
+        valid = new boolean[builder.size];
+        for (int i = 0; i < builder.size; i++) {
+            final CountryCode countryCode = builder.distribution.sample(random);
+            String iban = generate(countryCode, random);
+            valid[i] = random.nextDouble() >= builder.invalidRate;
+            if (!valid[i]) {
+                iban = invalidate(iban, random);
+            }
+            if (random.nextDouble() < builder.formattedRate) {
+                iban = group(iban);
+            }
+            if (random.nextDouble() < builder.lowerCaseRate) {
+                iban = iban.toLowerCase(Locale.ROOT);
+            }
+            countries[i] = countryCode;
+            inputs[i] = iban;
+        }
+    }
+
+    /**
+     * @return builder of a corpus with 4096 valid SEPA-heavy ibans.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return number of ibans, a power of two.
+     */
+    public int size() {
+        return inputs.length;
+    }
+
+    /**
+     * @return the generated input. The array is backing the corpus, it is not copied.
+     */
+    public String[] getInputs() {
+        return inputs;
+    }
+
+    /**
+     * @return the country the input was generated for.
+     */
+    public CountryCode getCountryCode(final int index) {
+        return countries[index];
+    }
+
+    /**
+     * @return false if the input was deliberately broken. Whitespace and lower
+     *         case inputs which were not broken are valid once normalized.
+     */
+    public boolean isValid(final int index) {
+        return valid[index];
+    }
+
+    /**
+     * @return the valid inputs parsed as ibans, in corpus order.
+     */
+    public Iban[] toIbans() {
+        int count = 0;
+        for (final boolean v : valid) {
+            if (v) {
+                count++;
+            }
+        }
+        final Iban[] ibans = new Iban[count];
+        int j = 0;
+        for (int i = 0; i < inputs.length; i++) {
+            if (valid[i]) {
+                ibans[j++] = Iban.valueOf(inputs[i].replace(" ", "").toUpperCase(Locale.ROOT));
+            }
+        }
+        return ibans;
+    }
+
+    private static String generate(final CountryCode countryCode, final Random random) {
+        final StringBuilder sb = new StringBuilder(countryCode.getAlpha2()).append("00");
+        for (final BbanStructureEntry entry : BbanStructure.forCountry(countryCode).getEntries()) {
+            for (int i = 0; i < entry.getLength(); i++) {
+                sb.append(randomCharacter(entry.getCharacterType(), random));
+            }
+        }
+        final String checkDigit = IbanUtil.calculateCheckDigit(sb.toString());
+        return sb.replace(2, 4, checkDigit).toString();
+    }
+
+    private static char randomCharacter(final BbanStructureEntry.EntryCharacterType type,
+                                        final Random random) {
+        switch (type) {
+            case n:
+                return (char) ('0' + random.nextInt(10));
+            case a:
+                return (char) ('A' + random.nextInt(26));
+            default: {
+                final int value = random.nextInt(36);
+                return (char) (value < 10 ? '0' + value : 'A' + value - 10);
+            }
+        }
+    }
+
+    /**
+     * Breaks the iban the way real input usually is broken.
+     */
+    static String invalidate(final String iban, final Random random) {
+        switch (random.nextInt(4)) {
+            case 0: {
+                // wrong check digit
+                final int checkDigit = Integer.parseInt(iban.substring(2, 4));
+                return iban.substring(0, 2) + String.format("%02d", checkDigit + 1) + iban.substring(4);
+            }
+            case 1: {
+                // mistyped bban digit or letter
+                final char[] chars = iban.toCharArray();
+                final int i = 4 + random.nextInt(chars.length - 4);
+                final char ch = chars[i];
+                chars[i] = ch == '9' ? '0' : ch == 'Z' ? 'A' : (char) (ch + 1);
+                return new String(chars);
+            }
+            case 2:
+                // missing character
+                return iban.substring(0, iban.length() - 1);
+            default:
+                // invalid character
+                return iban.substring(0, iban.length() - 1) + '#';
+        }
+    }
+
+    private static String group(final String iban) {
+        final StringBuilder sb = new StringBuilder(iban.length() + iban.length() / 4);
+        for (int i = 0; i < iban.length(); i++) {
+            if (i > 0 && i % 4 == 0) {
+                sb.append(' ');
+            }
+            sb.append(iban.charAt(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Corpus settings.
+     */
+    public static final class Builder {
+
+        private long seed = 13616;
+        private int size = 4096;
+        private CountryDistribution distribution = CountryDistribution.sepaHeavy();
+        private double invalidRate;
+        private double formattedRate;
+        private double lowerCaseRate;
+
+        private Builder() {
+        }
+
+        public Builder seed(final long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * @param size number of ibans, must be a power of two so benchmarks can cycle with a mask.
+         */
+        public Builder size(final int size) {
+            if (size <= 0 || (size & (size - 1)) != 0) {
+                throw new IllegalArgumentException("Size must be a power of two: " + size);
+            }
+            this.size = size;
+            return this;
+        }
+
+        public Builder distribution(final CountryDistribution distribution) {
+            this.distribution = distribution;
+            return this;
+        }
+
+        /**
+         * @param invalidRate share of ibans which are broken, from 0 to 1.
+         */
+        public Builder invalidRate(final double invalidRate) {
+            this.invalidRate = rate(invalidRate);
+            return this;
+        }
+
+        /**
+         * @param formattedRate share of ibans printed in groups of four separated by spaces, from 0 to 1.
+         */
+        public Builder formattedRate(final double formattedRate) {
+            this.formattedRate = rate(formattedRate);
+            return this;
+        }
+
+        /**
+         * @param lowerCaseRate share of lower cased ibans, from 0 to 1.
+         */
+        public Builder lowerCaseRate(final double lowerCaseRate) {
+            this.lowerCaseRate = rate(lowerCaseRate);
+            return this;
+        }
+
+        public IbanCorpus build() {
+            return new IbanCorpus(this);
+        }
+
+        private static double rate(final double rate) {
+            if (rate < 0 || rate > 1) {
+                throw new IllegalArgumentException("Rate must be in range from 0 to 1: " + rate);
+            }
+            return rate;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Character view over a region of single byte encoded text, so iban checks run
+ * on bytes without decoding them into a String. Bytes are read as ISO-8859-1,
+ * which maps every ascii byte to the same character.
+ *
+ * An instance can be pointed at another region, so one view serves a whole file.
+ */
+final class AsciiSequence implements CharSequence {
+
+    private byte[] bytes;
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+
+    AsciiSequence() {
+    }
+
+    AsciiSequence(final byte[] bytes, final int offset, final int length) {
+        set(bytes, offset, length);
+    }
+
+    AsciiSequence(final ByteBuffer buffer, final int offset, final int length) {
+        set(buffer, offset, length);
+    }
+
+    AsciiSequence set(final byte[] bytes, final int offset, final int length) {
+        this.bytes = bytes;
+        this.buffer = null;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    /**
+     * Points the view at a region of the buffer. The buffer is read with
+     * absolute gets, its position and limit are not used.
+     */
+    AsciiSequence set(final ByteBuffer buffer, final int offset, final int length) {
+        this.bytes = null;
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        final byte b = bytes != null ? bytes[offset + index] : buffer.get(offset + index);
+        return (char) (b & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end
+                    + ", length: " + length);
+        }
+        return toString(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return toString(0, length);
+    }
+
+    private String toString(final int start, final int end) {
+        final char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            chars[i - start] = charAt(i);
+        }
+        return new String(chars);
+    }
+}
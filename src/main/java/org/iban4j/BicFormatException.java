@@ -111,6 +111,21 @@ public class BicFormatException extends Iban4jException {
         super(t);
     }
 
+    /**
+     * Constructs a <code>BicFormatException</code> with the
+     * specified violation and detail message which is formatted
+     * on first access.
+     *
+     * @param violation the violation.
+     * @param messageFormat the format string of the detail message.
+     * @param messageArguments the arguments of the format string.
+     */
+    BicFormatException(final BicFormatViolation violation,
+                       final String messageFormat, final Object[] messageArguments) {
+        super(messageFormat, messageArguments);
+        this.formatViolation = violation;
+    }
+
     public BicFormatViolation getFormatViolation() {
         return formatViolation;
     }
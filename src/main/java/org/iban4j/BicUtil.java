@@ -76,8 +76,8 @@ public class BicUtil {
     private static void validateLength(final String bic) {
         if(bic.length() != BIC8_LENGTH && bic.length() != BIC11_LENGTH) {
             throw new BicFormatException(BIC_LENGTH_8_OR_11,
-                    String.format("Bic length must be %d or %d",
-                            BIC8_LENGTH, BIC11_LENGTH));
+                    "Bic length must be %d or %d",
+                    new Object[] {BIC8_LENGTH, BIC11_LENGTH});
         }
     }
 
@@ -109,7 +109,7 @@ public class BicUtil {
                     "Bic country code must contain upper case letters");
         }
 
-        if(CountryCode.getByCode(countryCode) == null) {
+        if(CountryCode.fromAlpha2(countryCode.charAt(0), countryCode.charAt(1)) == null) {
             throw new UnsupportedCountryException(countryCode,
                     "Country code is not supported.");
         }
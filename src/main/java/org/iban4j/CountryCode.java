@@ -15,8 +15,9 @@
  */
 package org.iban4j;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.Comparator;
+
 
 /**
  * Country Code Enum
@@ -744,15 +745,33 @@ public enum CountryCode {
 
 
     /**
-     * Country alpha3 code map, maps alpha3 codes to country codes
+     * Number of letters in the alphabet of country codes.
+     */
+    private static final int LETTERS = 26;
+
+    /**
+     * Country alpha2 code table, indexed by the position of both letters in the alphabet.
+     */
+    private static final CountryCode[] alpha2Table = new CountryCode[LETTERS * LETTERS];
+
+    /**
+     * Country alpha3 codes are looked up through a perfect hash: every code is
+     * hashed into one of the buckets, and the seed stored for the bucket places
+     * its codes into distinct slots of the table. A lookup costs two hashes and
+     * a comparison with the key stored in the slot.
      * <a href="http://en.wikipedia.org/wiki/ISO_3166-1_alpha-3">ISO 3166-3 alpha-3</a> code.
      */
-    private static final Map<String, CountryCode> alpha3Map = new HashMap<String, CountryCode>();
+    private static final int ALPHA3_BUCKETS = 128;
+    private static final int ALPHA3_SLOTS = 512;
+    private static final int[] alpha3Seeds = new int[ALPHA3_BUCKETS];
+    private static final int[] alpha3Keys = new int[ALPHA3_SLOTS];
+    private static final CountryCode[] alpha3Table = new CountryCode[ALPHA3_SLOTS];
 
     static {
         for (final CountryCode cc : values()) {
-            alpha3Map.put(cc.getAlpha3(), cc);
+            alpha2Table[alpha2Index(cc.name().charAt(0), cc.name().charAt(1))] = cc;
         }
+        buildAlpha3Table();
     }
 
     /**
@@ -817,10 +836,10 @@ public enum CountryCode {
 
         switch (code.length()) {
             case 2:
-                return getByAlpha2Code(code.toUpperCase());
+                return fromAlpha2(code.charAt(0), code.charAt(1));
 
             case 3:
-                return getByAlpha3Code(code.toUpperCase());
+                return fromAlpha3(code.charAt(0), code.charAt(1), code.charAt(2));
 
             default:
                 return null;
@@ -829,27 +848,190 @@ public enum CountryCode {
 
     /**
      * Get a CountryCode that corresponds to the given ISO 3166-1
-     * <a href="http://en.wikipedia.org/wiki/ISO_3166-1_alpha-2">alpha-2</a> code.
+     * <a href="http://en.wikipedia.org/wiki/ISO_3166-1_alpha-2">alpha-2</a> code letters.
+     * Letters are case insensitive.
      *
-     * @param code An ISO 3166-1 <a href="http://en.wikipedia.org/wiki/ISO_3166-1_alpha-2">alpha-2</a> code.
+     * @param first the first letter of the code.
+     * @param second the second letter of the code.
      * @return A CountryCode instance, or null if not found.
      */
-    private static CountryCode getByAlpha2Code(final String code) {
-        try {
-            return Enum.valueOf(CountryCode.class, code);
-        } catch (IllegalArgumentException e) {
+    public static CountryCode fromAlpha2(final char first, final char second) {
+        final int firstIndex = letterIndex(first);
+        final int secondIndex = letterIndex(second);
+        if (firstIndex < 0 || secondIndex < 0) {
+            return null;
+        }
+        return alpha2Table[firstIndex * LETTERS + secondIndex];
+    }
+
+    /**
+     * Get a CountryCode that corresponds to the ISO 3166-1
+     * <a href="http://en.wikipedia.org/wiki/ISO_3166-1_alpha-2">alpha-2</a> code
+     * stored at the given offset. Letters are case insensitive.
+     *
+     * @param sequence the sequence holding the code.
+     * @param offset the index of the first letter of the code.
+     * @return A CountryCode instance, or null if not found or if the sequence
+     *         doesn't have two characters at the offset.
+     */
+    public static CountryCode fromAlpha2(final CharSequence sequence, final int offset) {
+        if (offset < 0 || offset > sequence.length() - 2) {
             return null;
         }
+        return fromAlpha2(sequence.charAt(offset), sequence.charAt(offset + 1));
     }
 
     /**
      * Get a CountryCode that corresponds to the given ISO 3166-1
-     * <a href="http://en.wikipedia.org/wiki/ISO_3166-1_alpha-3">alpha-3</a> code.
+     * <a href="http://en.wikipedia.org/wiki/ISO_3166-1_alpha-3">alpha-3</a> code letters.
+     * Letters are case insensitive.
      *
-     * @param code An ISO 3166-1 <a href="http://en.wikipedia.org/wiki/ISO_3166-1_alpha-3">alpha-3</a> code.
+     * @param first the first letter of the code.
+     * @param second the second letter of the code.
+     * @param third the third letter of the code.
      * @return A CountryCode instance, or null if not found.
      */
-    private static CountryCode getByAlpha3Code(final String code) {
-        return alpha3Map.get(code);
+    public static CountryCode fromAlpha3(final char first, final char second, final char third) {
+        final int firstIndex = letterIndex(first);
+        final int secondIndex = letterIndex(second);
+        final int thirdIndex = letterIndex(third);
+        if (firstIndex < 0 || secondIndex < 0 || thirdIndex < 0) {
+            return null;
+        }
+        final int key = (firstIndex * LETTERS + secondIndex) * LETTERS + thirdIndex;
+        final int slot = alpha3Slot(key, alpha3Seeds[alpha3Bucket(key)]);
+        return alpha3Keys[slot] == key ? alpha3Table[slot] : null;
+    }
+
+    /**
+     * Get a CountryCode that corresponds to the ISO 3166-1
+     * <a href="http://en.wikipedia.org/wiki/ISO_3166-1_alpha-3">alpha-3</a> code
+     * stored at the given offset. Letters are case insensitive.
+     *
+     * @param sequence the sequence holding the code.
+     * @param offset the index of the first letter of the code.
+     * @return A CountryCode instance, or null if not found or if the sequence
+     *         doesn't have three characters at the offset.
+     */
+    public static CountryCode fromAlpha3(final CharSequence sequence, final int offset) {
+        if (offset < 0 || offset > sequence.length() - 3) {
+            return null;
+        }
+        return fromAlpha3(sequence.charAt(offset), sequence.charAt(offset + 1),
+                sequence.charAt(offset + 2));
+    }
+
+    /**
+     * Returns the position of the letter in the alphabet.
+     * Non ascii characters are upper cased the same way String.toUpperCase does.
+     *
+     * @return position in range from 0 to 25, or -1 if the character is not a letter.
+     */
+    private static int letterIndex(final char ch) {
+        if (ch >= 'A' && ch <= 'Z') {
+            return ch - 'A';
+        }
+        if (ch >= 'a' && ch <= 'z') {
+            return ch - 'a';
+        }
+        if (ch < 128) {
+            return -1;
+        }
+        final char upperCase = Character.toUpperCase(ch);
+        return upperCase >= 'A' && upperCase <= 'Z' ? upperCase - 'A' : -1;
+    }
+
+    private static int alpha2Index(final char first, final char second) {
+        return (first - 'A') * LETTERS + (second - 'A');
+    }
+
+    private static int alpha3Bucket(final int key) {
+        return mix(key, 0) & (ALPHA3_BUCKETS - 1);
+    }
+
+    private static int alpha3Slot(final int key, final int seed) {
+        return mix(key, seed) & (ALPHA3_SLOTS - 1);
+    }
+
+    private static int mix(final int key, final int seed) {
+        int h = key * 0x9E3779B1 ^ seed * 0x85EBCA6B;
+        h ^= h >>> 16;
+        h *= 0x7FEB352D;
+        return h ^ (h >>> 15);
+    }
+
+    /**
+     * Builds the alpha3 perfect hash table. Buckets holding most codes are placed
+     * first, for every bucket seeds are tried until its codes land on free distinct slots.
+     */
+    private static void buildAlpha3Table() {
+        final CountryCode[][] buckets = new CountryCode[ALPHA3_BUCKETS][];
+        for (final CountryCode cc : values()) {
+            final int bucket = alpha3Bucket(alpha3Key(cc));
+            final CountryCode[] codes = buckets[bucket];
+            if (codes == null) {
+                buckets[bucket] = new CountryCode[] {cc};
+            } else {
+                final CountryCode[] grown = new CountryCode[codes.length + 1];
+                System.arraycopy(codes, 0, grown, 0, codes.length);
+                grown[codes.length] = cc;
+                buckets[bucket] = grown;
+            }
+        }
+
+        final Integer[] order = new Integer[ALPHA3_BUCKETS];
+        for (int i = 0; i < ALPHA3_BUCKETS; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(final Integer first, final Integer second) {
+                return sizeOf(buckets[second]) - sizeOf(buckets[first]);
+            }
+        });
+
+        Arrays.fill(alpha3Keys, -1);
+        final int[] slots = new int[ALPHA3_SLOTS];
+        for (final Integer bucket : order) {
+            final CountryCode[] codes = buckets[bucket];
+            if (codes == null) {
+                break;
+            }
+            int seed = 1;
+            while (!placeable(codes, seed, slots)) {
+                seed++;
+            }
+            alpha3Seeds[bucket] = seed;
+            for (final CountryCode cc : codes) {
+                final int key = alpha3Key(cc);
+                final int slot = alpha3Slot(key, seed);
+                alpha3Keys[slot] = key;
+                alpha3Table[slot] = cc;
+            }
+        }
+    }
+
+    private static boolean placeable(final CountryCode[] codes, final int seed, final int[] slots) {
+        for (int i = 0; i < codes.length; i++) {
+            final int slot = alpha3Slot(alpha3Key(codes[i]), seed);
+            if (alpha3Keys[slot] != -1) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (slots[j] == slot) {
+                    return false;
+                }
+            }
+            slots[i] = slot;
+        }
+        return true;
+    }
+
+    private static int alpha3Key(final CountryCode cc) {
+        final String alpha3 = cc.getAlpha3();
+        return (alpha2Index(alpha3.charAt(0), alpha3.charAt(1))) * LETTERS + (alpha3.charAt(2) - 'A');
+    }
+
+    private static int sizeOf(final CountryCode[] codes) {
+        return codes == null ? 0 : codes.length;
     }
-}
\ No newline at end of file
+}
@@ -15,9 +15,12 @@
  */
 package org.iban4j;
 
+import org.iban4j.bban.BbanEntryType;
 import org.iban4j.bban.BbanStructure;
 import org.iban4j.bban.BbanStructureEntry;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Random;
 
@@ -36,6 +39,14 @@ public final class Iban {
     // Cache string value of the iban
     private final String value;
 
+    // Resolved once, so bban entries are extracted by their precomputed offsets
+    private final CountryCode countryCode;
+    private final BbanStructure structure;
+
+    // Formatted value, computed on first use. Like String's hash it isn't
+    // synchronized, every thread computes an equal string.
+    private String formattedValue;
+
     /**
      * Creates iban instance.
      *
@@ -43,6 +54,8 @@ public final class Iban {
      */
     private Iban(final String value) {
         this.value = value;
+        this.countryCode = CountryCode.fromAlpha2(value.charAt(0), value.charAt(1));
+        this.structure = BbanStructure.forAlpha2(value.charAt(0), value.charAt(1));
     }
 
     /**
@@ -51,7 +64,7 @@ public final class Iban {
      * @return countryCode CountryCode
      */
     public CountryCode getCountryCode() {
-        return CountryCode.getByCode(IbanUtil.getCountryCode(value));
+        return countryCode;
     }
 
     /**
@@ -69,7 +82,7 @@ public final class Iban {
      * @return accountNumber String
      */
     public String getAccountNumber() {
-        return IbanUtil.getAccountNumber(value);
+        return IbanUtil.extractBbanEntry(value, structure, BbanEntryType.account_number);
     }
 
     /**
@@ -78,7 +91,7 @@ public final class Iban {
      * @return currency String
      */
     public String getCurrency() {
-        return IbanUtil.getCurrency(value);
+        return IbanUtil.extractBbanEntry(value, structure, BbanEntryType.currency);
     }
 
     /**
@@ -87,7 +100,7 @@ public final class Iban {
      * @return reserveNumber String
      */
     public String getReserveNumber() {
-        return IbanUtil.getReserveNumber(value);
+        return IbanUtil.extractBbanEntry(value, structure, BbanEntryType.reserve_number);
     }
 
     /**
@@ -96,7 +109,7 @@ public final class Iban {
      * @return bankCode String
      */
     public String getBankCode() {
-        return IbanUtil.getBankCode(value);
+        return IbanUtil.extractBbanEntry(value, structure, BbanEntryType.bank_code);
     }
 
     /**
@@ -105,7 +118,7 @@ public final class Iban {
      * @return branchCode String
      */
     public String getBranchCode() {
-        return IbanUtil.getBranchCode(value);
+        return IbanUtil.extractBbanEntry(value, structure, BbanEntryType.branch_code);
     }
 
     /**
@@ -114,7 +127,7 @@ public final class Iban {
      * @return nationalCheckDigit String
      */
     public String getNationalCheckDigit() {
-        return IbanUtil.getNationalCheckDigit(value);
+        return IbanUtil.extractBbanEntry(value, structure, BbanEntryType.national_check_digit);
     }
 
     /**
@@ -123,7 +136,7 @@ public final class Iban {
      * @return accountType String
      */
     public String getAccountType() {
-        return IbanUtil.getAccountType(value);
+        return IbanUtil.extractBbanEntry(value, structure, BbanEntryType.account_type);
     }
 
     /**
@@ -132,7 +145,7 @@ public final class Iban {
      * @return ownerAccountType String
      */
     public String getOwnerAccountType() {
-        return IbanUtil.getOwnerAccountType(value);
+        return IbanUtil.extractBbanEntry(value, structure, BbanEntryType.owner_account_number);
     }
 
     /**
@@ -141,7 +154,7 @@ public final class Iban {
      * @return identificationNumber String
      */
     public String getIdentificationNumber() {
-        return IbanUtil.getIdentificationNumber(value);
+        return IbanUtil.extractBbanEntry(value, structure, BbanEntryType.identification_number);
     }
 
     /**
@@ -153,6 +166,51 @@ public final class Iban {
         return IbanUtil.getBban(value);
     }
 
+    /**
+     * Returns iban's bank code as a view, without copying characters.
+     *
+     * @return bankCode IbanSegment or null if the country has no bank code.
+     */
+    public IbanSegment bankCodeView() {
+        return entryView(BbanEntryType.bank_code);
+    }
+
+    /**
+     * Returns iban's branch code as a view, without copying characters.
+     *
+     * @return branchCode IbanSegment or null if the country has no branch code.
+     */
+    public IbanSegment branchCodeView() {
+        return entryView(BbanEntryType.branch_code);
+    }
+
+    /**
+     * Returns iban's account number as a view, without copying characters.
+     *
+     * @return accountNumber IbanSegment or null if the country has no account number.
+     */
+    public IbanSegment accountNumberView() {
+        return entryView(BbanEntryType.account_number);
+    }
+
+    /**
+     * Returns iban's bban as a view, without copying characters.
+     *
+     * @return bban IbanSegment
+     */
+    public IbanSegment bbanView() {
+        return new IbanSegment(value, IbanUtil.BBAN_INDEX, value.length() - IbanUtil.BBAN_INDEX);
+    }
+
+    private IbanSegment entryView(final BbanEntryType entryType) {
+        final int offset = structure.getEntryOffset(entryType);
+        if (offset < 0) {
+            return null;
+        }
+        return new IbanSegment(value, IbanUtil.BBAN_INDEX + offset,
+                structure.getEntryLength(entryType));
+    }
+
     /**
      * Returns an Iban object holding the value of the specified String.
      *
@@ -168,6 +226,80 @@ public final class Iban {
         return new Iban(iban);
     }
 
+    /**
+     * Returns an Iban object holding the value of the ascii encoded iban stored
+     * in the specified region of a byte buffer. Bytes are validated in place,
+     * the iban value is only created once they are valid. The position of the
+     * buffer is not changed.
+     *
+     * @param buffer the byte buffer holding the iban.
+     * @param offset the index of the first iban byte.
+     * @param length the number of iban bytes.
+     * @return an Iban object holding the value represented by the bytes.
+     * @throws IbanFormatException if the bytes don't contain parsable Iban
+     *                             InvalidCheckDigitException if Iban has invalid check digit
+     *                             UnsupportedCountryException if Iban's Country is not supported.
+     * @throws IndexOutOfBoundsException if offset and length are out of buffer limit.
+     */
+    public static Iban valueOf(final ByteBuffer buffer, final int offset, final int length)
+            throws IbanFormatException, InvalidCheckDigitException, UnsupportedCountryException {
+        IbanUtil.validate(buffer, offset, length);
+        return new Iban(new AsciiSequence(buffer, offset, length).toString());
+    }
+
+    /**
+     * Returns an Iban object holding the value of the ascii encoded iban stored
+     * in the specified region of a byte buffer, without throwing an exception
+     * if the bytes don't contain valid Iban.
+     *
+     * @param buffer the byte buffer holding the iban.
+     * @param offset the index of the first iban byte.
+     * @param length the number of iban bytes.
+     * @return an Iban object holding the value represented by the bytes,
+     *         or null if the bytes are not a valid Iban.
+     * @throws IndexOutOfBoundsException if offset and length are out of buffer limit.
+     */
+    public static Iban tryValueOf(final ByteBuffer buffer, final int offset, final int length) {
+        IbanUtil.checkRegion(buffer.limit(), offset, length);
+        final AsciiSequence iban = new AsciiSequence(buffer, offset, length);
+        return IbanUtil.checkStatus(iban, 0, length) == IbanUtil.VALID
+                ? new Iban(iban.toString()) : null;
+    }
+
+    /**
+     * Returns an Iban object holding the value of the specified String,
+     * without throwing an exception if the String doesn't contain valid Iban.
+     *
+     * @param iban the String to be parsed.
+     * @return an Iban object holding the value represented by the string argument,
+     *         or null if the string is not a valid Iban.
+     */
+    public static Iban tryValueOf(final String iban) {
+        return IbanUtil.checkStatus(iban, 0, iban == null ? 0 : iban.length()) == IbanUtil.VALID
+                ? new Iban(iban) : null;
+    }
+
+    /**
+     * Returns an Iban object holding the value of the specified String,
+     * without throwing an exception if the String doesn't contain valid Iban.
+     *
+     * @param iban the String to be parsed.
+     * @param result to be filled with the violation, if any.
+     * @return an Iban object holding the value represented by the string argument,
+     *         or null if the string is not a valid Iban.
+     */
+    public static Iban tryValueOf(final String iban, final IbanValidationResult result) {
+        return IbanUtil.check(iban, 0, iban == null ? 0 : iban.length(), result)
+                ? new Iban(iban) : null;
+    }
+
+    /**
+     * Returns an Iban object holding an already validated value.
+     */
+    static Iban ofValid(final String iban) {
+        return new Iban(iban);
+    }
+
     /**
      * Returns an Iban object holding the value of the specified String.
      *
@@ -182,14 +314,10 @@ public final class Iban {
             InvalidCheckDigitException, UnsupportedCountryException {
         switch (format) {
             case Default:
-                final String ibanWithoutSpaces = iban.replace(" ", "");
-                final Iban ibanObj = valueOf(ibanWithoutSpaces);
-                if (ibanObj.toFormattedString().equals(iban)) {
-                    return ibanObj;
-                }
-                throw new IbanFormatException(IBAN_FORMATTING,
-                        String.format("Iban must be formatted using 4 characters and space combination. " +
-                                "Instead of [%s]", iban));
+            case Lenient:
+            case National:
+            case Masked:
+                return new Iban(IbanUtil.parse(iban, format));
             default:
                 return valueOf(iban);
         }
@@ -206,7 +334,67 @@ public final class Iban {
      * @return A string representing formatted Iban for printing.
      */
     public String toFormattedString() {
-        return IbanUtil.toFormattedString(value);
+        String formatted = formattedValue;
+        if (formatted == null) {
+            formatted = IbanUtil.toFormattedString(value);
+            formattedValue = formatted;
+        }
+        return formatted;
+    }
+
+    /**
+     * Appends formatted version of Iban, as returned by {@link #toFormattedString()}.
+     *
+     * @param builder the builder to append to.
+     * @return the builder.
+     */
+    public StringBuilder appendFormattedTo(final StringBuilder builder) {
+        final String formatted = formattedValue;
+        if (formatted != null) {
+            return builder.append(formatted);
+        }
+        builder.ensureCapacity(builder.length() + IbanUtil.formattedLength(value.length()));
+        try {
+            IbanUtil.appendFormatted(value, builder);
+        } catch (final IOException e) {
+            // StringBuilder doesn't throw
+            throw new IllegalStateException(e);
+        }
+        return builder;
+    }
+
+    /**
+     * Appends formatted version of Iban, as returned by {@link #toFormattedString()}.
+     *
+     * @param appendable the appendable to append to.
+     * @return the appendable.
+     * @throws IOException if the appendable throws it.
+     */
+    public <A extends Appendable> A appendFormattedTo(final A appendable) throws IOException {
+        final String formatted = formattedValue;
+        if (formatted != null) {
+            appendable.append(formatted);
+        } else {
+            IbanUtil.appendFormatted(value, appendable);
+        }
+        return appendable;
+    }
+
+    /**
+     * Returns Iban with characters hidden by the policy, e.g. for logging.
+     *
+     * @param policy decides which characters are hidden.
+     * @return A string representing masked Iban.
+     */
+    public String mask(final MaskPolicy policy) {
+        final StringBuilder builder = new StringBuilder(IbanUtil.formattedLength(value.length()));
+        try {
+            IbanUtil.appendMasked(value, policy, builder);
+        } catch (final IOException e) {
+            // StringBuilder doesn't throw
+            throw new IllegalStateException(e);
+        }
+        return builder.toString();
     }
 
     public static Iban random() {
@@ -17,6 +17,13 @@ package org.iban4j;
 
 /**
  * Base Runtime Exception Class for the library exceptions.
+ *
+ * Exceptions thrown by the library format their message lazily, when
+ * {@link #getMessage()} is called for the first time. Filling in the stack trace
+ * can be switched off with {@link #setStackTraceEnabled(boolean)} or by setting
+ * the <code>iban4j.stacklessExceptions</code> system property to true, which makes
+ * rejecting invalid input considerably cheaper.
+ *
  * @see org.iban4j.IbanFormatException
  * @see org.iban4j.InvalidCheckDigitException
  * @see org.iban4j.UnsupportedCountryException
@@ -24,6 +31,17 @@ package org.iban4j;
  */
 public abstract class Iban4jException extends RuntimeException {
 
+    /**
+     * System property which disables stack traces when set to true.
+     */
+    public static final String STACKLESS_PROPERTY = "iban4j.stacklessExceptions";
+
+    private static volatile boolean stackTraceEnabled = !Boolean.getBoolean(STACKLESS_PROPERTY);
+
+    private String messageFormat;
+    private Object[] messageArguments;
+    private String formattedMessage;
+
     public Iban4jException() {
         super();
     }
@@ -39,4 +57,56 @@ public abstract class Iban4jException extends RuntimeException {
     public Iban4jException(final Throwable cause) {
         super(cause);
     }
+
+    /**
+     * Constructs exception with a message which is formatted on first access.
+     *
+     * @param messageFormat the format string of the message.
+     * @param messageArguments the arguments of the format string.
+     */
+    Iban4jException(final String messageFormat, final Object[] messageArguments) {
+        super();
+        this.messageFormat = messageFormat;
+        this.messageArguments = messageArguments;
+    }
+
+    @Override
+    public String getMessage() {
+        if (messageFormat == null) {
+            return super.getMessage();
+        }
+        String message = formattedMessage;
+        if (message == null) {
+            message = String.format(messageFormat, messageArguments);
+            formattedMessage = message;
+        }
+        return message;
+    }
+
+    /**
+     * Fills in the stack trace unless stack traces are disabled.
+     *
+     * @return this exception.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return stackTraceEnabled ? super.fillInStackTrace() : this;
+    }
+
+    /**
+     * Enables or disables filling in the stack trace of library exceptions
+     * constructed afterwards.
+     *
+     * @param enabled false to construct exceptions without stack trace.
+     */
+    public static void setStackTraceEnabled(final boolean enabled) {
+        stackTraceEnabled = enabled;
+    }
+
+    /**
+     * @return true if library exceptions fill in their stack trace, false otherwise.
+     */
+    public static boolean isStackTraceEnabled() {
+        return stackTraceEnabled;
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.iban4j.IbanFormatException.IbanFormatViolation;
+
+import java.util.BitSet;
+
+/**
+ * Result of a batch validation.
+ *
+ * Results are stored column wise: a bit set of valid entries and a parallel
+ * array holding the {@link IbanFormatViolation} ordinal of every invalid entry.
+ *
+ * @see IbanUtil#validateAll(CharSequence[])
+ */
+public final class IbanBatchResult {
+
+    /**
+     * Violation ordinal stored for valid entries.
+     */
+    public static final byte VALID = -1;
+
+    private static final IbanFormatViolation[] VIOLATIONS = IbanFormatViolation.values();
+
+    private final BitSet valid;
+    private final byte[] violations;
+
+    IbanBatchResult(final int size) {
+        this.valid = new BitSet(size);
+        this.violations = new byte[size];
+    }
+
+    void setValid(final int index) {
+        valid.set(index);
+        violations[index] = VALID;
+    }
+
+    void setViolation(final int index, final IbanFormatViolation violation) {
+        violations[index] = (byte) violation.ordinal();
+    }
+
+    /**
+     * @return the number of validated entries.
+     */
+    public int size() {
+        return violations.length;
+    }
+
+    /**
+     * @param index the index of the entry relative to the start of the validated range.
+     * @return true if the entry is a valid iban, false otherwise.
+     */
+    public boolean isValid(final int index) {
+        return valid.get(index);
+    }
+
+    /**
+     * @param index the index of the entry relative to the start of the validated range.
+     * @return the violation of the entry or null if the entry is valid.
+     */
+    public IbanFormatViolation getViolation(final int index) {
+        final byte ordinal = violations[index];
+        return ordinal == VALID ? null : VIOLATIONS[ordinal];
+    }
+
+    /**
+     * @return the number of valid entries.
+     */
+    public int getValidCount() {
+        return valid.cardinality();
+    }
+
+    /**
+     * @return the number of invalid entries.
+     */
+    public int getInvalidCount() {
+        return size() - getValidCount();
+    }
+
+    /**
+     * Returns the valid entries. The bit set is backing this result, it is not copied.
+     *
+     * @return bit set with a bit set for every valid entry.
+     */
+    public BitSet getValidEntries() {
+        return valid;
+    }
+
+    /**
+     * Returns violation ordinals of the entries, {@link #VALID} for valid entries.
+     * The array is backing this result, it is not copied.
+     *
+     * @return array of {@link IbanFormatViolation} ordinals.
+     */
+    public byte[] getViolations() {
+        return violations;
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+
+/**
+ * Blocked bloom filter over packed ibans.
+ *
+ * Every iban sets its bits within one 512 bit block, so a lookup reads a single
+ * cache line. {@link #mightContain(CharSequence)} never misses an added iban and
+ * wrongly reports other ibans with about the requested false positive rate.
+ * Input which isn't a packable iban with a valid check digit is rejected before
+ * hashing, so junk never passes.
+ *
+ * {@link #writeTo(OutputStream)} and {@link #readFrom(InputStream)} store the
+ * filter as: the magic number, the format version, the number of hash functions,
+ * the number of blocks and the blocks' longs, all big endian.
+ *
+ * Adding is not thread safe, concurrent lookups of a filter which isn't modified
+ * any more are.
+ */
+public final class IbanBloomFilter {
+
+    private static final int MAGIC = 0x4942424C;
+    private static final int VERSION = 1;
+    private static final int BLOCK_WORDS = 8;
+    private static final int BLOCK_BITS = BLOCK_WORDS * 64;
+    private static final int MAX_HASH_FUNCTIONS = 16;
+    private static final int MAX_BLOCKS = Integer.MAX_VALUE / BLOCK_WORDS;
+
+    private final long[] bits;
+    private final int blocks;
+    private final int hashFunctions;
+
+    private IbanBloomFilter(final long[] bits, final int hashFunctions) {
+        this.bits = bits;
+        this.blocks = bits.length / BLOCK_WORDS;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * Creates an empty filter.
+     *
+     * @param expectedSize the number of ibans to be added.
+     * @param falsePositiveRate the rate of wrongly contained ibans once
+     *                          the expected number of ibans is added, e.g. 0.001.
+     * @return the filter.
+     */
+    public static IbanBloomFilter create(final long expectedSize, final double falsePositiveRate) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: "
+                    + falsePositiveRate);
+        }
+        final long size = Math.max(expectedSize, 1);
+        final double bitCount = -size * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        final double blockCount = Math.ceil(bitCount / BLOCK_BITS);
+        if (blockCount > MAX_BLOCKS) {
+            throw new IllegalArgumentException("Filter for " + expectedSize + " ibans is too big.");
+        }
+        final int hashFunctions = (int) Math.max(1, Math.min(MAX_HASH_FUNCTIONS,
+                Math.round(blockCount * BLOCK_BITS / size * Math.log(2))));
+        return new IbanBloomFilter(new long[(int) blockCount * BLOCK_WORDS], hashFunctions);
+    }
+
+    /**
+     * Creates a filter holding the ibans.
+     *
+     * @param ibans the ibans to be added.
+     * @param expectedSize the number of ibans.
+     * @param falsePositiveRate the rate of wrongly contained ibans.
+     * @return the filter.
+     */
+    public static IbanBloomFilter build(final Iterator<? extends Iban> ibans, final long expectedSize,
+                                        final double falsePositiveRate) {
+        final IbanBloomFilter filter = create(expectedSize, falsePositiveRate);
+        while (ibans.hasNext()) {
+            filter.add(ibans.next());
+        }
+        return filter;
+    }
+
+    /**
+     * Reads a filter written by {@link #writeTo(OutputStream)}. The stream is not closed.
+     *
+     * @param in the stream to read from.
+     * @return the filter.
+     * @throws IOException if the stream can't be read or doesn't hold a filter.
+     */
+    public static IbanBloomFilter readFrom(final InputStream in) throws IOException {
+        final DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Stream doesn't hold an iban bloom filter.");
+        }
+        final int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported iban bloom filter version " + version + ".");
+        }
+        final int hashFunctions = data.readInt();
+        final int blocks = data.readInt();
+        if (hashFunctions < 1 || hashFunctions > MAX_HASH_FUNCTIONS || blocks < 1 || blocks > MAX_BLOCKS) {
+            throw new IOException("Corrupt iban bloom filter.");
+        }
+        final long[] bits = new long[blocks * BLOCK_WORDS];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = data.readLong();
+        }
+        return new IbanBloomFilter(bits, hashFunctions);
+    }
+
+    /**
+     * Writes the filter. The stream is flushed but not closed.
+     *
+     * @param out the stream to write to.
+     * @throws IOException if the stream can't be written.
+     */
+    public void writeTo(final OutputStream out) throws IOException {
+        final DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(hashFunctions);
+        data.writeInt(blocks);
+        for (final long word : bits) {
+            data.writeLong(word);
+        }
+        data.flush();
+    }
+
+    /**
+     * Adds the iban.
+     *
+     * @param iban the iban to be added.
+     */
+    public void add(final Iban iban) {
+        final String value = iban.toString();
+        addValid(value, 0, value.length());
+    }
+
+    /**
+     * Adds the iban.
+     *
+     * @param iban the iban to be added.
+     */
+    public void add(final PackedIban iban) {
+        add(iban.getWord(0), iban.getWord(1), iban.getWord(2));
+    }
+
+    /**
+     * Validates and adds the iban.
+     *
+     * @param iban the iban to be added.
+     * @throws IbanFormatException if iban is invalid.
+     *         UnsupportedCountryException if iban's country is not supported.
+     *         InvalidCheckDigitException if iban has invalid check digit.
+     */
+    public void add(final CharSequence iban) throws IbanFormatException,
+            InvalidCheckDigitException, UnsupportedCountryException {
+        final int length = iban == null ? 0 : iban.length();
+        IbanUtil.validate(iban, 0, length);
+        addValid(iban, 0, length);
+    }
+
+    /**
+     * Adds the valid iban packed exactly like {@link #mightContain(CharSequence, int, int)}
+     * packs lookups, which is what rules out false negatives.
+     */
+    private void addValid(final CharSequence iban, final int offset, final int length) {
+        add(PackedIban.word(iban, offset, length, 0), PackedIban.word(iban, offset, length, 1),
+                PackedIban.word(iban, offset, length, 2));
+    }
+
+    private void add(final long first, final long second, final long third) {
+        final long hash = hash(first, second, third);
+        final int block = block(hash);
+        int bit = (int) hash;
+        final int step = (int) (hash >>> 9) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            final int index = bit & (BLOCK_BITS - 1);
+            bits[block + (index >>> 6)] |= 1L << index;
+            bit += step;
+        }
+    }
+
+    /**
+     * Tests whether the iban might have been added.
+     *
+     * @param iban the iban in electronic format.
+     * @return false if the iban was certainly not added, true if it probably was.
+     */
+    public boolean mightContain(final CharSequence iban) {
+        return iban != null && mightContain(iban, 0, iban.length());
+    }
+
+    /**
+     * Tests whether the iban stored in the specified region of the sequence might have been added.
+     *
+     * @return false if the iban was certainly not added, true if it probably was.
+     * @throws IndexOutOfBoundsException if the region is outside of the sequence.
+     */
+    public boolean mightContain(final CharSequence iban, final int offset, final int length) {
+        IbanUtil.checkRegion(iban.length(), offset, length);
+        return PackedIban.isPackable(iban, offset, length)
+                && Mod97.mod(iban, offset, length, false) == 1
+                && mightContain(PackedIban.word(iban, offset, length, 0),
+                PackedIban.word(iban, offset, length, 1),
+                PackedIban.word(iban, offset, length, 2));
+    }
+
+    /**
+     * Tests whether the ascii encoded iban stored in the specified region of the array
+     * might have been added.
+     *
+     * @return false if the iban was certainly not added, true if it probably was.
+     * @throws IndexOutOfBoundsException if the region is outside of the array.
+     */
+    public boolean mightContain(final byte[] iban, final int offset, final int length) {
+        IbanUtil.checkRegion(iban.length, offset, length);
+        return mightContain(new AsciiSequence(iban, offset, length), 0, length);
+    }
+
+    /**
+     * Tests whether the ascii encoded iban stored in the specified region of the buffer
+     * might have been added. The position and the limit of the buffer are not changed.
+     *
+     * @return false if the iban was certainly not added, true if it probably was.
+     * @throws IndexOutOfBoundsException if the region is outside of the buffer's limit.
+     */
+    public boolean mightContain(final ByteBuffer iban, final int offset, final int length) {
+        IbanUtil.checkRegion(iban.limit(), offset, length);
+        return mightContain(new AsciiSequence(iban, offset, length), 0, length);
+    }
+
+    /**
+     * Tests whether the iban might have been added.
+     *
+     * @return false if the iban was certainly not added, true if it probably was.
+     */
+    public boolean mightContain(final PackedIban iban) {
+        return iban != null && mightContain(iban.getWord(0), iban.getWord(1), iban.getWord(2));
+    }
+
+    private boolean mightContain(final long first, final long second, final long third) {
+        final long hash = hash(first, second, third);
+        final int block = block(hash);
+        int bit = (int) hash;
+        final int step = (int) (hash >>> 9) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            final int index = bit & (BLOCK_BITS - 1);
+            if ((bits[block + (index >>> 6)] & (1L << index)) == 0) {
+                return false;
+            }
+            bit += step;
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of bits of the filter.
+     */
+    public long getBitCount() {
+        return (long) bits.length * 64;
+    }
+
+    /**
+     * @return the number of bits set per iban.
+     */
+    public int getHashFunctionCount() {
+        return hashFunctions;
+    }
+
+    /**
+     * Returns the index of the first word of the iban's block, chosen by the
+     * upper half of the hash. The bits within the block are chosen by the lower half.
+     */
+    private int block(final long hash) {
+        return (int) (((hash >>> 32) * blocks) >>> 32) * BLOCK_WORDS;
+    }
+
+    private static long hash(final long first, final long second, final long third) {
+        long h = first * 0x9E3779B97F4A7C15L + second;
+        h = h * 0x9E3779B97F4A7C15L + third;
+        // murmur3 finalizer, so every input bit affects every hash bit
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of validated ibans.
+ *
+ * {@link #valueOf(String)} returns the shared Iban instance of a string seen
+ * before, without validating it again, and validates and caches new strings.
+ * Invalid strings are never cached, they throw on every call like
+ * {@link Iban#valueOf(String)}.
+ *
+ * The cache is split into segments by the string's hash, each guarded by its
+ * own lock and holding its entries in least recently used order. With
+ * {@link Eviction#TINY_LFU} a new iban only replaces the least recently used
+ * one if it was requested more often recently, so a batch of one-off ibans
+ * doesn't flush frequently repeated ones.
+ *
+ * This class is thread safe.
+ */
+public final class IbanCache {
+
+    /**
+     * Eviction policy of a full cache.
+     */
+    public static enum Eviction {
+
+        /**
+         * A new iban replaces the least recently used one.
+         */
+        LRU,
+
+        /**
+         * A new iban replaces the least recently used one only if it was
+         * requested more often, as estimated by a frequency sketch.
+         */
+        TINY_LFU
+    }
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final int maximumSize;
+    private final Eviction eviction;
+
+    /**
+     * Creates a cache with {@link Eviction#TINY_LFU} eviction.
+     *
+     * @param maximumSize the maximum number of cached ibans.
+     */
+    public IbanCache(final int maximumSize) {
+        this(maximumSize, Eviction.TINY_LFU);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumSize the maximum number of cached ibans.
+     * @param eviction the eviction policy.
+     */
+    public IbanCache(final int maximumSize, final Eviction eviction) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        if (eviction == null) {
+            throw new IllegalArgumentException("Eviction must not be null.");
+        }
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && segmentCount * 2 * MIN_SEGMENT_SIZE <= maximumSize) {
+            segmentCount *= 2;
+        }
+        this.segments = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+        this.maximumSize = maximumSize;
+        this.eviction = eviction;
+        for (int i = 0; i < segmentCount; i++) {
+            final int segmentSize = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+            segments[i] = new Segment(segmentSize, eviction == Eviction.TINY_LFU);
+        }
+    }
+
+    /**
+     * Returns the iban of the string, validating it only if it is not cached.
+     *
+     * @param iban the iban in electronic format.
+     * @return the shared iban instance.
+     * @throws IbanFormatException if iban is invalid.
+     *         UnsupportedCountryException if iban's country is not supported.
+     *         InvalidCheckDigitException if iban has invalid check digit.
+     */
+    public Iban valueOf(final String iban) throws IbanFormatException,
+            InvalidCheckDigitException, UnsupportedCountryException {
+        if (iban == null) {
+            return Iban.valueOf(iban);
+        }
+        final int hash = spread(iban.hashCode());
+        final Segment segment = segments[hash & segmentMask];
+        final Iban cached = segment.get(iban, hash);
+        if (cached != null) {
+            return cached;
+        }
+        // validate outside of the lock, so other ibans of the segment aren't blocked
+        return segment.put(iban, hash, Iban.valueOf(iban));
+    }
+
+    /**
+     * @return the number of cached ibans.
+     */
+    public int size() {
+        int size = 0;
+        for (final Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the maximum number of cached ibans.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return the eviction policy.
+     */
+    public Eviction getEviction() {
+        return eviction;
+    }
+
+    /**
+     * @return the number of calls answered from the cache.
+     */
+    public long getHitCount() {
+        long count = 0;
+        for (final Segment segment : segments) {
+            synchronized (segment) {
+                count += segment.hits;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of calls which validated their iban.
+     */
+    public long getMissCount() {
+        long count = 0;
+        for (final Segment segment : segments) {
+            synchronized (segment) {
+                count += segment.misses;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Removes all cached ibans.
+     */
+    public void clear() {
+        for (final Segment segment : segments) {
+            synchronized (segment) {
+                segment.map.clear();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IbanCache{size=" + size() + ", maximumSize=" + maximumSize + ", eviction=" + eviction
+                + ", hits=" + getHitCount() + ", misses=" + getMissCount() + "}";
+    }
+
+    private static int spread(final int hash) {
+        final int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Segment {
+
+        private final LinkedHashMap<String, Iban> map;
+        private final int capacity;
+        private final FrequencySketch sketch;
+        private long hits;
+        private long misses;
+
+        Segment(final int capacity, final boolean admission) {
+            this.map = new LinkedHashMap<String, Iban>(16, 0.75f, true);
+            this.capacity = capacity;
+            this.sketch = admission ? new FrequencySketch(capacity) : null;
+        }
+
+        synchronized Iban get(final String iban, final int hash) {
+            if (sketch != null) {
+                sketch.increment(hash);
+            }
+            final Iban cached = map.get(iban);
+            if (cached != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+            return cached;
+        }
+
+        synchronized Iban put(final String iban, final int hash, final Iban value) {
+            final Iban cached = map.get(iban);
+            if (cached != null) {
+                // cached by another thread meanwhile
+                return cached;
+            }
+            if (map.size() >= capacity) {
+                final Iterator<Map.Entry<String, Iban>> eldest = map.entrySet().iterator();
+                final String victim = eldest.next().getKey();
+                if (sketch != null
+                        && sketch.frequency(hash) <= sketch.frequency(spread(victim.hashCode()))) {
+                    return value;
+                }
+                eldest.remove();
+            }
+            map.put(iban, value);
+            return value;
+        }
+    }
+
+    /**
+     * Count-min sketch of 4 bit counters estimating how often a hash was seen
+     * recently. All counters are halved after every 10 increments per entry, so
+     * old popularity fades.
+     */
+    private static final class FrequencySketch {
+
+        private static final long[] SEEDS = {
+                0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int tableMask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(final int capacity) {
+            int length = 1;
+            while (length < capacity) {
+                length *= 2;
+            }
+            this.table = new long[length];
+            this.tableMask = length - 1;
+            this.sampleSize = 10 * Math.max(capacity, 1);
+        }
+
+        int frequency(final int hash) {
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < SEEDS.length; i++) {
+                final long h = index(hash, i);
+                final int shift = counterShift(h);
+                frequency = Math.min(frequency, (int) (table[(int) h & tableMask] >>> shift) & 0xF);
+            }
+            return frequency;
+        }
+
+        void increment(final int hash) {
+            for (int i = 0; i < SEEDS.length; i++) {
+                final long h = index(hash, i);
+                final int index = (int) h & tableMask;
+                final int shift = counterShift(h);
+                if (((table[index] >>> shift) & 0xF) < 0xF) {
+                    table[index] += 1L << shift;
+                }
+            }
+            if (++additions >= sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions /= 2;
+            }
+        }
+
+        private static long index(final int hash, final int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return h;
+        }
+
+        private static int counterShift(final long h) {
+            return ((int) (h >>> 40) & 0xF) << 2;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.iban4j.IbanFormatException.IbanFormatViolation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Validates files holding one ascii encoded iban per line.
+ *
+ * The file is memory mapped window by window and ibans are validated directly
+ * from the mapped bytes, lines are never decoded into Strings. Lines are separated
+ * by '\n', a trailing '\r' is ignored.
+ *
+ * Big files can be validated in parallel, the windows are then cut at line
+ * breaks and validated independently by the tasks of an executor.
+ */
+public final class IbanFileValidator {
+
+    /**
+     * Receives invalid lines of a validated file.
+     */
+    public interface Listener {
+
+        /**
+         * Called for every invalid line, in file order.
+         *
+         * @param lineNumber the number of the line, starting with 1.
+         * @param violation the violation of the line.
+         * @param line the content of the line. It is only valid during the call,
+         *             call toString() to keep it.
+         */
+        void invalidLine(long lineNumber, IbanFormatViolation violation, CharSequence line);
+    }
+
+    private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+    private static final int SEARCH_BUFFER_SIZE = 4096;
+
+    private IbanFileValidator() {
+    }
+
+    /**
+     * Validates every line of the file.
+     *
+     * @param file the file holding one iban per line.
+     * @return statistics of all lines.
+     * @throws IOException if the file can't be read.
+     */
+    public static IbanStatistics validate(final File file) throws IOException {
+        return validate(file, null, WINDOW_SIZE);
+    }
+
+    /**
+     * Validates every line of the file and reports invalid lines to the listener.
+     *
+     * @param file the file holding one iban per line.
+     * @param listener receives invalid lines, may be null.
+     * @return statistics of all lines.
+     * @throws IOException if the file can't be read.
+     */
+    public static IbanStatistics validate(final File file, final Listener listener)
+            throws IOException {
+        return validate(file, listener, WINDOW_SIZE);
+    }
+
+    static IbanStatistics validate(final File file, final Listener listener, final int windowSize)
+            throws IOException {
+        final IbanStatistics statistics = new IbanStatistics();
+        final AsciiSequence line = new AsciiSequence();
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = randomAccessFile.getChannel();
+            final long size = channel.size();
+            long position = 0;
+            long lineNumber = 0;
+            int mappedSize = windowSize;
+            while (position < size) {
+                final long remaining = size - position;
+                final int length = (int) Math.min(mappedSize, remaining);
+                final MappedByteBuffer window =
+                        channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                int lineStart = 0;
+                for (int i = 0; i < length; i++) {
+                    if (window.get(i) == '\n') {
+                        validateLine(window, lineStart, i, ++lineNumber, line, statistics, listener);
+                        lineStart = i + 1;
+                    }
+                }
+                if (length == remaining) {
+                    if (lineStart < length) {
+                        validateLine(window, lineStart, length, ++lineNumber, line, statistics, listener);
+                    }
+                    break;
+                }
+
+                if (lineStart == 0) {
+                    // the line doesn't fit into the window, map a bigger one
+                    if (mappedSize > Integer.MAX_VALUE / 2) {
+                        throw new IOException("Line " + (lineNumber + 1) + " of " + file
+                                + " is too long.");
+                    }
+                    mappedSize *= 2;
+                }
+                // the last incomplete line is validated from the next window
+                position += lineStart;
+            }
+        } finally {
+            randomAccessFile.close();
+        }
+        return statistics;
+    }
+
+    /**
+     * Validates every line of the file in windows, which are run by the executor,
+     * and counts the results. At most one task per available processor is
+     * submitted, each task maps and validates windows until none is left.
+     *
+     * @param file the file holding one iban per line.
+     * @param executor runs validation of the windows.
+     * @return statistics of all lines.
+     * @throws IOException if the file can't be read.
+     * @throws InterruptedException if interrupted while waiting for the windows.
+     */
+    public static IbanStatistics validateInParallel(final File file, final ExecutorService executor)
+            throws IOException, InterruptedException {
+        return validateInParallel(file, executor, WINDOW_SIZE);
+    }
+
+    static IbanStatistics validateInParallel(final File file, final ExecutorService executor,
+                                             final int windowSize)
+            throws IOException, InterruptedException {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = randomAccessFile.getChannel();
+            final long[] bounds = windowBounds(file, channel, windowSize);
+            final int windowCount = bounds.length - 1;
+            final int taskCount = Math.min(windowCount, Runtime.getRuntime().availableProcessors());
+            final AtomicInteger nextWindow = new AtomicInteger();
+            final List<Callable<IbanStatistics>> tasks = new ArrayList<Callable<IbanStatistics>>(taskCount);
+            for (int i = 0; i < taskCount; i++) {
+                tasks.add(new Callable<IbanStatistics>() {
+                    public IbanStatistics call() throws IOException {
+                        final IbanStatistics statistics = new IbanStatistics();
+                        final AsciiSequence line = new AsciiSequence();
+                        int window;
+                        while ((window = nextWindow.getAndIncrement()) < windowCount) {
+                            final int length = (int) (bounds[window + 1] - bounds[window]);
+                            final MappedByteBuffer buffer =
+                                    channel.map(FileChannel.MapMode.READ_ONLY, bounds[window], length);
+                            int lineStart = 0;
+                            for (int j = 0; j < length; j++) {
+                                if (buffer.get(j) == '\n') {
+                                    validateLine(buffer, lineStart, j, 0, line, statistics, null);
+                                    lineStart = j + 1;
+                                }
+                            }
+                            // only the last window may end without a line break
+                            if (lineStart < length) {
+                                validateLine(buffer, lineStart, length, 0, line, statistics, null);
+                            }
+                        }
+                        return statistics;
+                    }
+                });
+            }
+            return merge(executor.invokeAll(tasks));
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * Splits the file into windows of about the window size, each ending after
+     * a line break or at the end of the file.
+     *
+     * @return the start of every window followed by the size of the file.
+     */
+    private static long[] windowBounds(final File file, final FileChannel channel, final int windowSize)
+            throws IOException {
+        final long size = channel.size();
+        final List<Long> bounds = new ArrayList<Long>();
+        final ByteBuffer buffer = ByteBuffer.allocate(SEARCH_BUFFER_SIZE);
+        long start = 0;
+        while (start < size) {
+            bounds.add(start);
+            long end = start + windowSize;
+            if (end >= size) {
+                break;
+            }
+            end = nextLineStart(channel, end - 1, size, buffer);
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("Line ending at " + end + " of " + file + " is too long.");
+            }
+            start = end;
+        }
+        bounds.add(size);
+        final long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * @return the position after the first line break at or after the position,
+     *         or the size if there is none.
+     */
+    private static long nextLineStart(final FileChannel channel, long position, final long size,
+                                      final ByteBuffer buffer) throws IOException {
+        while (position < size) {
+            buffer.clear();
+            final int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static IbanStatistics merge(final List<Future<IbanStatistics>> futures)
+            throws IOException, InterruptedException {
+        final IbanStatistics statistics = new IbanStatistics();
+        for (final Future<IbanStatistics> future : futures) {
+            try {
+                statistics.merge(future.get());
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw (RuntimeException) cause;
+            }
+        }
+        return statistics;
+    }
+
+    private static void validateLine(final MappedByteBuffer window, final int start, final int end,
+                                     final long lineNumber, final AsciiSequence line,
+                                     final IbanStatistics statistics, final Listener listener) {
+        final int lineEnd = end > start && window.get(end - 1) == '\r' ? end - 1 : end;
+        line.set(window, start, lineEnd - start);
+        final int status = IbanUtil.countInto(line, statistics);
+        if (status != IbanUtil.VALID && listener != null) {
+            listener.invalidLine(lineNumber, IbanUtil.violationOf(status), line);
+        }
+    }
+}
@@ -15,18 +15,99 @@
  */
 package org.iban4j;
 
+import java.io.IOException;
+import java.nio.CharBuffer;
+
 /**
  * Iban Format Enum
+ *
+ * Besides parsing, every format writes ibans: {@link #format(Iban, StringBuilder)}
+ * and {@link #format(Iban, CharBuffer)} append to the caller's buffer without
+ * creating intermediate strings.
  */
 public enum IbanFormat {
     /**
-     * Default Iban Format.
+     * Default Iban Format, also known as print format.
      * Groups of four characters separated by a single space.
      */
     Default,
 
     /**
-     * No Format.
+     * No Format, also known as electronic format.
+     */
+    None,
+
+    /**
+     * Lenient Format.
+     * Spaces, tabs, dashes and non-breaking spaces anywhere, letters of any case.
+     * Ibans are written in electronic format.
+     */
+    Lenient,
+
+    /**
+     * National Format.
+     * Country code and check digit followed by the bban entries of the country's
+     * structure, separated by a single space, e.g. "GB29 NWBK 601613 31926819".
+     */
+    National,
+
+    /**
+     * Masked Format.
+     * Print format with every bban character but the last four replaced by '*',
+     * e.g. "DE89 **** **** **** **30 00". Masked ibans can't be parsed.
      */
-    None
+    Masked;
+
+    /**
+     * Returns the iban in this format.
+     *
+     * @param iban the iban to be formatted.
+     * @return the formatted iban.
+     */
+    public String format(final Iban iban) {
+        switch (this) {
+            case Default:
+                return iban.toFormattedString();
+            case None:
+            case Lenient:
+                return iban.toString();
+            default:
+                final int length = iban.toString().length();
+                return format(iban, new StringBuilder(IbanUtil.formattedLength(length))).toString();
+        }
+    }
+
+    /**
+     * Appends the iban in this format.
+     *
+     * @param iban the iban to be formatted.
+     * @param builder the builder to append to.
+     * @return the builder.
+     */
+    public StringBuilder format(final Iban iban, final StringBuilder builder) {
+        append(iban, builder);
+        return builder;
+    }
+
+    /**
+     * Puts the iban in this format at the buffer's position.
+     *
+     * @param iban the iban to be formatted.
+     * @param buffer the buffer to put to.
+     * @return the buffer.
+     * @throws java.nio.BufferOverflowException if the buffer has not enough space remaining.
+     */
+    public CharBuffer format(final Iban iban, final CharBuffer buffer) {
+        append(iban, buffer);
+        return buffer;
+    }
+
+    private void append(final Iban iban, final Appendable appendable) {
+        try {
+            IbanUtil.appendFormatted(this, iban.toString(), appendable);
+        } catch (final IOException e) {
+            // neither StringBuilder nor CharBuffer throw
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -141,6 +141,53 @@ public class IbanFormatException extends Iban4jException {
         this.formatViolation = violation;
     }
 
+    /**
+     * Constructs a <code>IbanFormatException</code> with the
+     * specified violation, actual value, expected value and
+     * detail message which is formatted on first access.
+     *
+     * @param violation the violation.
+     * @param actual the actual value.
+     * @param expected the expected value.
+     * @param messageFormat the format string of the detail message.
+     * @param messageArguments the arguments of the format string.
+     */
+    IbanFormatException(final IbanFormatViolation violation,
+                        final Object actual,
+                        final Object expected,
+                        final String messageFormat,
+                        final Object[] messageArguments) {
+        super(messageFormat, messageArguments);
+        this.expected = expected;
+        this.actual = actual;
+        this.formatViolation = violation;
+    }
+
+    /**
+     * Constructs a <code>IbanFormatException</code> with the
+     * specified violation, entryType, actual value, invalidCharacter
+     * and detail message which is formatted on first access.
+     *
+     * @param violation the violation.
+     * @param entryType the bban entry type.
+     * @param actual the actual value.
+     * @param invalidCharacter the invalid character.
+     * @param messageFormat the format string of the detail message.
+     * @param messageArguments the arguments of the format string.
+     */
+    IbanFormatException(final IbanFormatViolation violation,
+                        final BbanEntryType entryType,
+                        final Object actual,
+                        final char invalidCharacter,
+                        final String messageFormat,
+                        final Object[] messageArguments) {
+        super(messageFormat, messageArguments);
+        this.actual = actual;
+        this.formatViolation = violation;
+        this.bbanEntryType = entryType;
+        this.invalidCharacter = invalidCharacter;
+    }
+
     public IbanFormatViolation getFormatViolation() {
         return formatViolation;
     }
@@ -183,7 +230,17 @@ public class IbanFormatException extends Iban4jException {
         BBAN_ONLY_DIGITS_OR_LETTERS,
 
         BANK_CODE_NOT_NULL,
-        ACCOUNT_NUMBER_NOT_NULL
+        ACCOUNT_NUMBER_NOT_NULL,
+
+        // appended, so ordinals of the constants above stay stable
+        /**
+         * Check digit doesn't match the iban, reported with {@link InvalidCheckDigitException}.
+         */
+        CHECK_DIGIT_VALID,
+        /**
+         * Country doesn't support iban, reported with {@link UnsupportedCountryException}.
+         */
+        COUNTRY_CODE_SUPPORTED
 
     }
 }
\ No newline at end of file
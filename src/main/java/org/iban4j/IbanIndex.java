@@ -0,0 +1,423 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read only set of ibans kept in a memory mapped file.
+ *
+ * The file holds an open addressing hash table of packed ibans, so the ibans
+ * live in the page cache instead of the heap and one file is shared by every
+ * process mapping it. Files are written by a {@link Builder}, which fills a
+ * temporary file next to the target and renames it over the target when done.
+ * {@link #reload()} maps the current file again; lookups running meanwhile keep
+ * using the previous mapping, which stays valid after the rename.
+ *
+ * File layout, big endian: the magic number, the format version, the number of
+ * slots (a power of two), the number of ibans and then 24 bytes per slot holding
+ * the words of a packed iban, or zeros for an empty slot.
+ *
+ * This class is thread safe.
+ */
+public final class IbanIndex {
+
+    private static final int MAGIC = 0x49424958;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int SLOT_SIZE = PackedIban.WORDS * 8;
+    private static final long MAX_SLOTS = 1L << 30;
+    private static final int SEGMENT_SHIFT = 26;
+
+    private final File file;
+    private final int segmentShift;
+    private volatile Table table;
+
+    private IbanIndex(final File file, final int segmentShift) throws IOException {
+        this.file = file;
+        this.segmentShift = segmentShift;
+        this.table = Table.open(file, segmentShift);
+    }
+
+    /**
+     * Maps the index file.
+     *
+     * @param file the file written by a {@link Builder}.
+     * @return the index.
+     * @throws IOException if the file can't be read or is not an index file.
+     */
+    public static IbanIndex open(final File file) throws IOException {
+        return new IbanIndex(file, SEGMENT_SHIFT);
+    }
+
+    static IbanIndex open(final File file, final int segmentShift) throws IOException {
+        return new IbanIndex(file, segmentShift);
+    }
+
+    /**
+     * Starts writing an index file.
+     *
+     * @param file the target file, replaced when the index is built.
+     * @param expectedSize the number of ibans to be added.
+     * @return the builder.
+     * @throws IOException if the temporary file can't be created.
+     */
+    public static Builder builder(final File file, final long expectedSize) throws IOException {
+        return new Builder(file, expectedSize, SEGMENT_SHIFT);
+    }
+
+    static Builder builder(final File file, final long expectedSize, final int segmentShift)
+            throws IOException {
+        return new Builder(file, expectedSize, segmentShift);
+    }
+
+    /**
+     * Maps the index file again, so an index built in the meantime becomes visible.
+     *
+     * @throws IOException if the file can't be read or is not an index file.
+     *         The previous mapping is kept in that case.
+     */
+    public void reload() throws IOException {
+        table = Table.open(file, segmentShift);
+    }
+
+    /**
+     * @return the number of ibans.
+     */
+    public long size() {
+        return table.size;
+    }
+
+    /**
+     * Looks up the iban. Input which isn't a well formed iban is simply not
+     * contained, there is no need to validate it first.
+     *
+     * @param iban the iban in electronic format.
+     * @return true if the iban is contained.
+     */
+    public boolean contains(final CharSequence iban) {
+        return iban != null && contains(iban, 0, iban.length());
+    }
+
+    /**
+     * Looks up the iban stored in the specified region of the sequence.
+     *
+     * @param iban the sequence holding the iban in electronic format.
+     * @param offset the index of the first character of the iban.
+     * @param length the length of the iban.
+     * @return true if the iban is contained.
+     * @throws IndexOutOfBoundsException if the region is outside of the sequence.
+     */
+    public boolean contains(final CharSequence iban, final int offset, final int length) {
+        IbanUtil.checkRegion(iban.length(), offset, length);
+        return PackedIban.isPackable(iban, offset, length)
+                && table.contains(PackedIban.word(iban, offset, length, 0),
+                PackedIban.word(iban, offset, length, 1),
+                PackedIban.word(iban, offset, length, 2));
+    }
+
+    /**
+     * Looks up the ascii encoded iban stored in the specified region of the array.
+     *
+     * @return true if the iban is contained.
+     * @throws IndexOutOfBoundsException if the region is outside of the array.
+     */
+    public boolean contains(final byte[] iban, final int offset, final int length) {
+        IbanUtil.checkRegion(iban.length, offset, length);
+        return contains(new AsciiSequence(iban, offset, length), 0, length);
+    }
+
+    /**
+     * Looks up the ascii encoded iban stored in the specified region of the buffer.
+     * The position and the limit of the buffer are not changed.
+     *
+     * @return true if the iban is contained.
+     * @throws IndexOutOfBoundsException if the region is outside of the buffer's limit.
+     */
+    public boolean contains(final ByteBuffer iban, final int offset, final int length) {
+        IbanUtil.checkRegion(iban.limit(), offset, length);
+        return contains(new AsciiSequence(iban, offset, length), 0, length);
+    }
+
+    /**
+     * @param iban the iban to look up.
+     * @return true if the iban is contained.
+     */
+    public boolean contains(final PackedIban iban) {
+        return iban != null && table.contains(iban.getWord(0), iban.getWord(1), iban.getWord(2));
+    }
+
+    private static long slotsFor(final long expectedSize) {
+        long slots = 16;
+        // load factor of at most 0.5 keeps probe sequences within a page,
+        // the builder refuses ibans beyond it
+        while (slots / 2 < expectedSize) {
+            if (slots >= MAX_SLOTS) {
+                throw new IllegalArgumentException("Expected size is too big: " + expectedSize);
+            }
+            slots <<= 1;
+        }
+        return slots;
+    }
+
+    private static MappedByteBuffer[] map(final FileChannel channel, final FileChannel.MapMode mode,
+                                          final long slots, final int segmentShift) throws IOException {
+        final long segmentSlots = 1L << segmentShift;
+        final int count = (int) ((slots + segmentSlots - 1) >>> segmentShift);
+        final MappedByteBuffer[] segments = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            final long first = i * segmentSlots;
+            final long length = Math.min(segmentSlots, slots - first) * SLOT_SIZE;
+            segments[i] = channel.map(mode, HEADER_SIZE + first * SLOT_SIZE, length);
+        }
+        return segments;
+    }
+
+    /**
+     * Mapped hash table, never changed once opened.
+     */
+    private static final class Table {
+
+        private final MappedByteBuffer[] segments;
+        private final long mask;
+        private final int segmentShift;
+        private final long segmentMask;
+        private final long size;
+
+        private Table(final MappedByteBuffer[] segments, final long slots, final int segmentShift,
+                      final long size) {
+            this.segments = segments;
+            this.mask = slots - 1;
+            this.segmentShift = segmentShift;
+            this.segmentMask = (1L << segmentShift) - 1;
+            this.size = size;
+        }
+
+        static Table open(final File file, final int segmentShift) throws IOException {
+            final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            try {
+                final FileChannel channel = randomAccessFile.getChannel();
+                final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                while (header.hasRemaining() && channel.read(header) >= 0) {
+                    // read the whole header
+                }
+                header.flip();
+                if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                    throw new IOException(file + " is not an iban index.");
+                }
+                final int version = header.getInt();
+                if (version != VERSION) {
+                    throw new IOException(file + " has unsupported index version " + version + ".");
+                }
+                final long slots = header.getLong();
+                final long size = header.getLong();
+                if (slots <= 0 || slots > MAX_SLOTS || (slots & (slots - 1)) != 0
+                        || size < 0 || size >= slots
+                        || channel.size() != HEADER_SIZE + slots * SLOT_SIZE) {
+                    throw new IOException(file + " is a corrupt iban index.");
+                }
+                // the mapping stays valid after the channel is closed
+                return new Table(map(channel, FileChannel.MapMode.READ_ONLY, slots, segmentShift),
+                        slots, segmentShift, size);
+            } finally {
+                randomAccessFile.close();
+            }
+        }
+
+        boolean contains(final long first, final long second, final long third) {
+            long slot = PackedIban.hash(first, second, third) & mask;
+            while (true) {
+                final MappedByteBuffer segment = segments[(int) (slot >>> segmentShift)];
+                final int index = (int) (slot & segmentMask) * SLOT_SIZE;
+                final long word = segment.getLong(index);
+                if (word == 0) {
+                    return false;
+                }
+                if (word == first && segment.getLong(index + 8) == second
+                        && segment.getLong(index + 16) == third) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+    }
+
+    /**
+     * Writes an index file.
+     *
+     * The table is filled in a memory mapped temporary file in the target's
+     * directory, so building doesn't need heap for the ibans either. Nothing is
+     * visible at the target until {@link #build()} renames the temporary file.
+     *
+     * This class is not thread safe.
+     */
+    public static final class Builder implements Closeable {
+
+        private final File file;
+        private final File temporaryFile;
+        private final RandomAccessFile randomAccessFile;
+        private final MappedByteBuffer[] segments;
+        private final long slots;
+        private final long mask;
+        private final int segmentShift;
+        private final long segmentMask;
+        private final long maxSize;
+        private long size;
+        private boolean closed;
+
+        private Builder(final File file, final long expectedSize, final int segmentShift)
+                throws IOException {
+            if (expectedSize < 0) {
+                throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+            }
+            this.file = file;
+            this.slots = slotsFor(expectedSize);
+            this.mask = slots - 1;
+            this.segmentShift = segmentShift;
+            this.segmentMask = (1L << segmentShift) - 1;
+            this.maxSize = slots / 2;
+            final File directory = file.getAbsoluteFile().getParentFile();
+            this.temporaryFile = File.createTempFile(file.getName(), ".tmp", directory);
+            this.randomAccessFile = new RandomAccessFile(temporaryFile, "rw");
+            try {
+                randomAccessFile.setLength(HEADER_SIZE + slots * SLOT_SIZE);
+                this.segments = map(randomAccessFile.getChannel(), FileChannel.MapMode.READ_WRITE,
+                        slots, segmentShift);
+            } catch (final IOException e) {
+                randomAccessFile.close();
+                temporaryFile.delete();
+                throw e;
+            }
+        }
+
+        /**
+         * Adds the iban.
+         *
+         * @param iban the iban to be added.
+         * @return true if the iban was not added yet.
+         * @throws IllegalStateException if more ibans than the load factor of 0.5
+         *         allows are added, at least the expected size is accepted.
+         */
+        public boolean add(final Iban iban) {
+            final String value = iban.toString();
+            return add(PackedIban.word(value, 0, value.length(), 0),
+                    PackedIban.word(value, 0, value.length(), 1),
+                    PackedIban.word(value, 0, value.length(), 2));
+        }
+
+        /**
+         * Validates and adds the iban.
+         *
+         * @param iban the iban to be added.
+         * @return true if the iban was not added yet.
+         * @throws IbanFormatException if iban is invalid.
+         *         UnsupportedCountryException if iban's country is not supported.
+         *         InvalidCheckDigitException if iban has invalid check digit.
+         * @throws IllegalStateException if more ibans than the load factor of 0.5
+         *         allows are added, at least the expected size is accepted.
+         */
+        public boolean add(final CharSequence iban) throws IbanFormatException,
+                InvalidCheckDigitException, UnsupportedCountryException {
+            final int length = iban == null ? 0 : iban.length();
+            IbanUtil.validate(iban, 0, length);
+            return add(PackedIban.word(iban, 0, length, 0), PackedIban.word(iban, 0, length, 1),
+                    PackedIban.word(iban, 0, length, 2));
+        }
+
+        private boolean add(final long first, final long second, final long third) {
+            if (closed) {
+                throw new IllegalStateException("Builder is closed.");
+            }
+            long slot = PackedIban.hash(first, second, third) & mask;
+            while (true) {
+                final MappedByteBuffer segment = segments[(int) (slot >>> segmentShift)];
+                final int index = (int) (slot & segmentMask) * SLOT_SIZE;
+                final long word = segment.getLong(index);
+                if (word == 0) {
+                    if (size >= maxSize) {
+                        throw new IllegalStateException("Index can't hold more than "
+                                + maxSize + " ibans.");
+                    }
+                    segment.putLong(index, first);
+                    segment.putLong(index + 8, second);
+                    segment.putLong(index + 16, third);
+                    size++;
+                    return true;
+                }
+                if (word == first && segment.getLong(index + 8) == second
+                        && segment.getLong(index + 16) == third) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        /**
+         * @return the number of ibans added.
+         */
+        public long size() {
+            return size;
+        }
+
+        /**
+         * Writes the header, flushes the table and renames the temporary file
+         * over the target file. The rename replaces the target in one step, so
+         * readers see either the old or the new index. Where the platform can't
+         * rename over an existing file, the build fails and the target is kept.
+         *
+         * @throws IOException if the file can't be written or renamed.
+         */
+        public void build() throws IOException {
+            if (closed) {
+                throw new IllegalStateException("Builder is closed.");
+            }
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putLong(slots).putLong(size).flip();
+            final FileChannel channel = randomAccessFile.getChannel();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            for (final MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+            channel.force(true);
+            closed = true;
+            randomAccessFile.close();
+            if (!temporaryFile.renameTo(file)) {
+                temporaryFile.delete();
+                throw new IOException("Can't rename " + temporaryFile + " to " + file + ".");
+            }
+        }
+
+        /**
+         * Discards the index unless it was built.
+         */
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            randomAccessFile.close();
+            temporaryFile.delete();
+        }
+    }
+}
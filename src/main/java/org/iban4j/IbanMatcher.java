@@ -0,0 +1,186 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.iban4j.bban.BbanStructure;
+
+import java.nio.CharBuffer;
+
+/**
+ * Finds valid ibans in text.
+ *
+ * A candidate starts with the code of a supported country which doesn't follow
+ * a letter or digit, followed by two digits. Its characters are collected up to
+ * the country's iban length, either contiguous or in groups of four separated by
+ * single spaces, and must not be followed by a letter or digit. Letters match in
+ * any case and are folded to upper case, so only candidates whose upper case
+ * form passes full validation, modulo 97 included, are found.
+ *
+ * An instance keeps the characters of the last match in a reused buffer, so it
+ * is not thread safe.
+ */
+final class IbanMatcher {
+
+    private static final int MAX_LENGTH = maxLength();
+
+    /**
+     * The length of the longest match, an iban of the longest supported country in print format.
+     */
+    static final int MAX_MATCH_LENGTH = IbanUtil.formattedLength(MAX_LENGTH);
+
+    private static final int SPACED = 1;
+    private static final int CONTIGUOUS = 2;
+
+    private final char[] chars = new char[MAX_LENGTH];
+    private final CharBuffer view = CharBuffer.wrap(chars);
+    private int start;
+    private int end;
+    private int length;
+
+    /**
+     * Finds the next valid iban which starts in the specified region of the text.
+     * The match must end before the end of the region, the character at the end
+     * of the region is still checked for the word boundary.
+     *
+     * @param text the text to search.
+     * @param from the index to start searching at.
+     * @param to the end index of the region.
+     * @return true if an iban was found, see {@link #start()} and {@link #end()}.
+     */
+    boolean find(final CharSequence text, final int from, final int to) {
+        for (int i = from; i <= to - IbanUtil.BBAN_INDEX; i++) {
+            if (toUpperCase(text.charAt(i)) != 0
+                    && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))
+                    && matchAt(text, i, to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchAt(final CharSequence text, final int index, final int to) {
+        final char first = toUpperCase(text.charAt(index));
+        final char second = toUpperCase(text.charAt(index + 1));
+        if (second == 0 || !isDigit(text.charAt(index + 2)) || !isDigit(text.charAt(index + 3))) {
+            return false;
+        }
+        final BbanStructure structure = BbanStructure.forAlpha2(first, second);
+        if (structure == null) {
+            return false;
+        }
+        final int expectedLength = IbanUtil.BBAN_INDEX + structure.getBbanLength();
+        int count = 0;
+        int position = index;
+        // 0 until the first group is complete, then spaced or contiguous
+        int grouping = 0;
+        while (count < expectedLength && position < to) {
+            if (count > 0 && (count & 3) == 0 && grouping != CONTIGUOUS) {
+                if (text.charAt(position) == ' ') {
+                    grouping = SPACED;
+                    if (++position == to) {
+                        break;
+                    }
+                } else if (grouping == SPACED) {
+                    break;
+                } else {
+                    grouping = CONTIGUOUS;
+                }
+            }
+            final char ch = text.charAt(position);
+            if (isDigit(ch)) {
+                chars[count++] = ch;
+            } else {
+                final char letter = toUpperCase(ch);
+                if (letter == 0) {
+                    break;
+                }
+                chars[count++] = letter;
+            }
+            position++;
+        }
+        if (count != expectedLength
+                || position < text.length() && Character.isLetterOrDigit(text.charAt(position))) {
+            return false;
+        }
+        view.clear();
+        view.limit(count);
+        if (IbanUtil.checkStatus(view, 0, count) != IbanUtil.VALID) {
+            return false;
+        }
+        start = index;
+        end = position;
+        length = count;
+        return true;
+    }
+
+    /**
+     * @return the index of the first character of the last match.
+     */
+    int start() {
+        return start;
+    }
+
+    /**
+     * @return the index after the last character of the last match.
+     */
+    int end() {
+        return end;
+    }
+
+    /**
+     * @return the length of the last match in electronic format.
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * @return the last match in electronic format, letters in upper case.
+     */
+    String iban() {
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * @return the country code of the last match.
+     */
+    CountryCode countryCode() {
+        return CountryCode.fromAlpha2(chars[0], chars[1]);
+    }
+
+    private static boolean isDigit(final char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    /**
+     * @return the upper case form of an ascii letter, or 0 for other characters.
+     */
+    private static char toUpperCase(final char ch) {
+        if (ch >= 'A' && ch <= 'Z') {
+            return ch;
+        }
+        return ch >= 'a' && ch <= 'z' ? (char) (ch - 'a' + 'A') : 0;
+    }
+
+    private static int maxLength() {
+        int maxLength = 0;
+        for (final CountryCode countryCode : BbanStructure.supportedCountries()) {
+            maxLength = Math.max(maxLength,
+                    IbanUtil.BBAN_INDEX + BbanStructure.forCountry(countryCode).getBbanLength());
+        }
+        return maxLength;
+    }
+}
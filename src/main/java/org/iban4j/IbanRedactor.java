@@ -0,0 +1,185 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+/**
+ * Masks valid ibans found in free text, e.g. log messages.
+ *
+ * Ibans are recognized in electronic format and in print format, with letters
+ * in any case, and only if their upper case form passes full validation, so
+ * account-like numbers with a wrong check digit are left untouched. Characters
+ * hidden by the {@link MaskPolicy} are replaced in place: the text keeps its
+ * length and layout, the grouping of the policy is not applied.
+ *
+ * The {@code redact} methods leave their argument unchanged, the
+ * {@code redactInPlace} methods modify it.
+ *
+ * Text is scanned once without creating intermediate strings, and text
+ * without ibans is not copied. An instance reuses its match buffer and is not
+ * thread safe, use one per thread.
+ */
+public final class IbanRedactor {
+
+    private final MaskPolicy policy;
+    private final IbanMatcher matcher = new IbanMatcher();
+
+    /**
+     * Creates a redactor masking with {@link MaskPolicy#DEFAULT}.
+     */
+    public IbanRedactor() {
+        this(MaskPolicy.DEFAULT);
+    }
+
+    /**
+     * Creates a redactor masking with the policy.
+     *
+     * @param policy decides which characters are hidden.
+     */
+    public IbanRedactor(final MaskPolicy policy) {
+        if (policy == null) {
+            throw new NullPointerException("Policy must not be null.");
+        }
+        this.policy = policy;
+    }
+
+    /**
+     * @return the policy deciding which characters are hidden.
+     */
+    public MaskPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the text with all valid ibans masked.
+     *
+     * @param text the text to redact.
+     * @return the redacted text, or the text itself as string if it contains no iban.
+     */
+    public String redact(final CharSequence text) {
+        if (!matcher.find(text, 0, text.length())) {
+            return text.toString();
+        }
+        final StringBuilder builder = new StringBuilder(text.length());
+        try {
+            appendRedacted(text, builder);
+        } catch (final IOException e) {
+            // StringBuilder doesn't throw
+            throw new IllegalStateException(e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Appends the text with all valid ibans masked.
+     *
+     * @param text the text to redact.
+     * @param appendable the appendable to append to.
+     * @return the number of masked ibans.
+     * @throws IOException if the appendable throws it.
+     */
+    public int redact(final CharSequence text, final Appendable appendable) throws IOException {
+        if (!matcher.find(text, 0, text.length())) {
+            appendable.append(text);
+            return 0;
+        }
+        return appendRedacted(text, appendable);
+    }
+
+    /**
+     * Appends the text masking the last match of the matcher and all valid ibans after it.
+     */
+    private int appendRedacted(final CharSequence text, final Appendable appendable) throws IOException {
+        final int length = text.length();
+        int copied = 0;
+        int count = 0;
+        do {
+            final int start = matcher.start();
+            final int end = matcher.end();
+            appendable.append(text, copied, start);
+            final long visible = policy.visibility(matcher.countryCode());
+            final char maskCharacter = policy.getMaskCharacter();
+            int index = 0;
+            for (int i = start; i < end; i++) {
+                final char ch = text.charAt(i);
+                if (ch == ' ') {
+                    appendable.append(ch);
+                } else {
+                    appendable.append((visible >>> index++ & 1) != 0 ? ch : maskCharacter);
+                }
+            }
+            copied = end;
+            count++;
+        } while (matcher.find(text, copied, length));
+        appendable.append(text, copied, length);
+        return count;
+    }
+
+    /**
+     * Masks all valid ibans of the text in place.
+     *
+     * @param text the text to redact.
+     * @return the number of masked ibans.
+     */
+    public int redactInPlace(final StringBuilder text) {
+        final int length = text.length();
+        int from = 0;
+        int count = 0;
+        while (matcher.find(text, from, length)) {
+            final long visible = policy.visibility(matcher.countryCode());
+            int index = 0;
+            for (int i = matcher.start(); i < matcher.end(); i++) {
+                if (text.charAt(i) != ' ' && (visible >>> index++ & 1) == 0) {
+                    text.setCharAt(i, policy.getMaskCharacter());
+                }
+            }
+            from = matcher.end();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Masks all valid ibans in the specified region of the char array in place.
+     * Characters outside of the region are used only to find word boundaries.
+     *
+     * @param text the char array holding the text.
+     * @param offset the index of the first character of the region.
+     * @param length the number of characters in the region.
+     * @return the number of masked ibans.
+     */
+    public int redactInPlace(final char[] text, final int offset, final int length) {
+        IbanUtil.checkRegion(text.length, offset, length);
+        final CharBuffer buffer = CharBuffer.wrap(text);
+        final int to = offset + length;
+        int from = offset;
+        int count = 0;
+        while (matcher.find(buffer, from, to)) {
+            final long visible = policy.visibility(matcher.countryCode());
+            int index = 0;
+            for (int i = matcher.start(); i < matcher.end(); i++) {
+                if (text[i] != ' ' && (visible >>> index++ & 1) == 0) {
+                    text[i] = policy.getMaskCharacter();
+                }
+            }
+            from = matcher.end();
+            count++;
+        }
+        return count;
+    }
+}
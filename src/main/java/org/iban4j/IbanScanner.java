@@ -0,0 +1,221 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extracts valid ibans from free text, e.g. email bodies or extracted pdf text.
+ *
+ * Scanning is triggered only at the code of a supported country followed by
+ * two digits, and a candidate is read up to the iban length of that country,
+ * in electronic format or grouped by four like print format. Candidates must
+ * stand alone as a word and pass full validation, modulo 97 included, before
+ * they are reported. No regular expression or intermediate string is involved
+ * until an iban is found.
+ *
+ * An instance reuses its buffers and is not thread safe, use one per thread.
+ */
+public final class IbanScanner {
+
+    /**
+     * Receives ibans found by a scan.
+     */
+    public interface Listener {
+
+        /**
+         * Called for every iban found, in text order.
+         *
+         * @param iban the iban found.
+         * @param start the index of its first character in the scanned input.
+         * @param end the index after its last character in the scanned input.
+         */
+        void found(Iban iban, long start, long end);
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+    // characters kept between reads: a whole match and the boundary after it
+    private static final int OVERLAP = IbanMatcher.MAX_MATCH_LENGTH + 1;
+
+    private final IbanMatcher matcher = new IbanMatcher();
+    private final int bufferSize;
+    private char[] buffer;
+
+    /**
+     * Creates a scanner.
+     */
+    public IbanScanner() {
+        this(BUFFER_SIZE);
+    }
+
+    IbanScanner(final int bufferSize) {
+        if (bufferSize <= 2 * OVERLAP) {
+            throw new IllegalArgumentException("Buffer size must be greater than " + 2 * OVERLAP);
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Finds all valid ibans in the text.
+     *
+     * @param text the text to scan.
+     * @return the ibans in text order.
+     */
+    public List<Iban> scan(final CharSequence text) {
+        final Collector collector = new Collector();
+        scan(text, collector);
+        return collector.ibans;
+    }
+
+    /**
+     * Finds all valid ibans in the text and reports them to the listener.
+     *
+     * @param text the text to scan.
+     * @param listener receives the ibans.
+     * @return the number of ibans found.
+     */
+    public int scan(final CharSequence text, final Listener listener) {
+        final int length = text.length();
+        int from = 0;
+        int count = 0;
+        while (matcher.find(text, from, length)) {
+            listener.found(Iban.ofValid(matcher.iban()), matcher.start(), matcher.end());
+            from = matcher.end();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Finds all valid ibans in the remaining bytes of the ascii encoded buffer.
+     * The position of the buffer is not changed.
+     *
+     * @param buffer the buffer to scan.
+     * @return the ibans in text order.
+     */
+    public List<Iban> scan(final ByteBuffer buffer) {
+        final Collector collector = new Collector();
+        scan(buffer, collector);
+        return collector.ibans;
+    }
+
+    /**
+     * Finds all valid ibans in the remaining bytes of the ascii encoded buffer
+     * and reports them to the listener. Reported indexes are absolute buffer
+     * indexes. The position of the buffer is not changed.
+     *
+     * @param buffer the buffer to scan.
+     * @param listener receives the ibans.
+     * @return the number of ibans found.
+     */
+    public int scan(final ByteBuffer buffer, final Listener listener) {
+        final int position = buffer.position();
+        final int length = buffer.remaining();
+        final AsciiSequence text = new AsciiSequence(buffer, position, length);
+        int from = 0;
+        int count = 0;
+        while (matcher.find(text, from, length)) {
+            listener.found(Iban.ofValid(matcher.iban()),
+                    position + matcher.start(), position + matcher.end());
+            from = matcher.end();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Finds all valid ibans in the characters of the reader. The reader is
+     * read to its end but not closed.
+     *
+     * @param reader the reader to scan.
+     * @return the ibans in text order.
+     * @throws IOException if the reader throws it.
+     */
+    public List<Iban> scan(final Reader reader) throws IOException {
+        final Collector collector = new Collector();
+        scan(reader, collector);
+        return collector.ibans;
+    }
+
+    /**
+     * Finds all valid ibans in the characters of the reader and reports them
+     * to the listener. The reader is read to its end but not closed.
+     *
+     * The reader is consumed through a fixed size buffer. Its tail, long enough
+     * for any iban in print format, is carried over to the next read, so ibans
+     * spanning two reads are found as well.
+     *
+     * @param reader the reader to scan.
+     * @param listener receives the ibans.
+     * @return the number of ibans found.
+     * @throws IOException if the reader throws it.
+     */
+    public long scan(final Reader reader, final Listener listener) throws IOException {
+        if (buffer == null) {
+            buffer = new char[bufferSize];
+        }
+        final char[] chars = buffer;
+        // index of chars[0] in the whole input
+        long base = 0;
+        int filled = 0;
+        int from = 0;
+        long count = 0;
+        boolean endOfInput = false;
+        while (true) {
+            while (filled < chars.length && !endOfInput) {
+                final int read = reader.read(chars, filled, chars.length - filled);
+                if (read < 0) {
+                    endOfInput = true;
+                } else {
+                    filled += read;
+                }
+            }
+            // matches starting before the limit are complete, the rest waits for the next read
+            final int limit = endOfInput ? filled : filled - OVERLAP;
+            final CharBuffer text = CharBuffer.wrap(chars, 0, filled);
+            while (matcher.find(text, from, filled) && matcher.start() < limit) {
+                listener.found(Iban.ofValid(matcher.iban()),
+                        base + matcher.start(), base + matcher.end());
+                from = matcher.end();
+                count++;
+            }
+            if (endOfInput) {
+                return count;
+            }
+            // keep one more character, it decides whether the next match starts a word
+            final int keep = Math.max(from, limit) - 1;
+            System.arraycopy(chars, keep, chars, 0, filled - keep);
+            base += keep;
+            filled -= keep;
+            from = Math.max(from, limit) - keep;
+        }
+    }
+
+    private static final class Collector implements Listener {
+
+        private final List<Iban> ibans = new ArrayList<Iban>();
+
+        @Override
+        public void found(final Iban iban, final long start, final long end) {
+            ibans.add(iban);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+/**
+ * Read only view over a region of an iban string.
+ *
+ * No characters are copied: the segment shares the storage of the iban it was
+ * taken from. {@link #hashCode()} is computed the same way as {@link String#hashCode()},
+ * and segments are equal to each other when they hold the same characters, so
+ * segments can be used as hash map keys. Reference data can be keyed with
+ * {@link #of(String)} and looked up with the views returned by {@link Iban}.
+ *
+ * @see Iban#bankCodeView()
+ * @see Iban#accountNumberView()
+ * @see Iban#bbanView()
+ */
+public final class IbanSegment implements CharSequence, Comparable<IbanSegment> {
+
+    private final String source;
+    private final int offset;
+    private final int length;
+
+    // Cache the hash code, 0 until calculated as in String
+    private int hash;
+
+    IbanSegment(final String source, final int offset, final int length) {
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Returns a segment spanning the whole string.
+     *
+     * @param value the string to be viewed.
+     * @return segment holding the characters of the string.
+     */
+    public static IbanSegment of(final String value) {
+        return new IbanSegment(value, 0, value.length());
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+        }
+        return source.charAt(offset + index);
+    }
+
+    @Override
+    public IbanSegment subSequence(final int start, final int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end
+                    + ", length: " + length);
+        }
+        return new IbanSegment(source, offset + start, end - start);
+    }
+
+    /**
+     * Tests whether the segment holds the same characters as the specified sequence.
+     *
+     * @param sequence the sequence to be compared, e.g. a String.
+     * @return true if the characters are equal, false otherwise.
+     */
+    public boolean contentEquals(final CharSequence sequence) {
+        return contentEquals(this, sequence);
+    }
+
+    @Override
+    public int compareTo(final IbanSegment other) {
+        return compare(this, other);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof IbanSegment) {
+            final IbanSegment other = (IbanSegment) obj;
+            return length == other.length
+                    && source.regionMatches(offset, other.source, other.offset, length);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = hashCode(this);
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return source.substring(offset, offset + length);
+    }
+
+    /**
+     * Tests whether two sequences hold the same characters.
+     *
+     * @param first the first sequence, may be null.
+     * @param second the second sequence, may be null.
+     * @return true if both are null or hold the same characters, false otherwise.
+     */
+    public static boolean contentEquals(final CharSequence first, final CharSequence second) {
+        if (first == second) {
+            return true;
+        }
+        if (first == null || second == null) {
+            return false;
+        }
+        final int length = first.length();
+        if (length != second.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (first.charAt(i) != second.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares two sequences lexicographically, the same way {@link String#compareTo(String)} does.
+     *
+     * @param first the first sequence.
+     * @param second the second sequence.
+     * @return negative value, zero or positive value if the first sequence is
+     *         less than, equal to or greater than the second one.
+     */
+    public static int compare(final CharSequence first, final CharSequence second) {
+        final int firstLength = first.length();
+        final int secondLength = second.length();
+        final int length = Math.min(firstLength, secondLength);
+        for (int i = 0; i < length; i++) {
+            final char a = first.charAt(i);
+            final char b = second.charAt(i);
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return firstLength - secondLength;
+    }
+
+    /**
+     * Calculates the hash code of a sequence, the same way {@link String#hashCode()} does.
+     *
+     * @param sequence the sequence.
+     * @return hash code equal to the hash code of the sequence's String representation.
+     */
+    public static int hashCode(final CharSequence sequence) {
+        int h = 0;
+        final int length = sequence.length();
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + sequence.charAt(i);
+        }
+        return h;
+    }
+}
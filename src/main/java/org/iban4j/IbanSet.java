@@ -0,0 +1,202 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+
+/**
+ * Set of ibans stored in packed form.
+ *
+ * Every iban takes three longs of a flat array instead of an Iban and a String,
+ * and lookups from a CharSequence, a byte array or a ByteBuffer don't create
+ * an Iban. Input which isn't a well formed iban is simply not contained.
+ *
+ * This class is not thread safe.
+ */
+public final class IbanSet extends PackedIbanTable implements Iterable<PackedIban> {
+
+    /**
+     * Creates an empty set.
+     */
+    public IbanSet() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty set which holds the expected number of ibans without resizing.
+     *
+     * @param expectedSize the expected number of ibans.
+     */
+    public IbanSet(final int expectedSize) {
+        super(expectedSize);
+    }
+
+    /**
+     * Adds the iban.
+     *
+     * @param iban the iban to be added.
+     * @return true if the iban was not contained yet.
+     */
+    public boolean add(final Iban iban) {
+        return add(PackedIban.valueOf(iban));
+    }
+
+    /**
+     * Adds the iban.
+     *
+     * @param iban the iban to be added.
+     * @return true if the iban was not contained yet.
+     */
+    public boolean add(final PackedIban iban) {
+        return insert(iban) < 0;
+    }
+
+    /**
+     * Validates and adds the iban.
+     *
+     * @param iban the iban to be added.
+     * @return true if the iban was not contained yet.
+     * @throws IbanFormatException if iban is invalid.
+     *         UnsupportedCountryException if iban's country is not supported.
+     *         InvalidCheckDigitException if iban has invalid check digit.
+     */
+    public boolean add(final CharSequence iban) throws IbanFormatException,
+            InvalidCheckDigitException, UnsupportedCountryException {
+        return insert(iban) < 0;
+    }
+
+    /**
+     * @param iban the iban to look up.
+     * @return true if the iban is contained.
+     */
+    public boolean contains(final Iban iban) {
+        return iban != null && contains(iban.toString());
+    }
+
+    /**
+     * @param iban the iban to look up.
+     * @return true if the iban is contained.
+     */
+    public boolean contains(final PackedIban iban) {
+        return iban != null && find(iban) >= 0;
+    }
+
+    /**
+     * @param iban the iban to look up, in electronic format.
+     * @return true if the iban is contained.
+     */
+    public boolean contains(final CharSequence iban) {
+        return iban != null && find(iban, 0, iban.length()) >= 0;
+    }
+
+    /**
+     * Looks up the iban stored in the specified region of the sequence.
+     *
+     * @param iban the sequence holding the iban in electronic format.
+     * @param offset the index of the first character of the iban.
+     * @param length the length of the iban.
+     * @return true if the iban is contained.
+     * @throws IndexOutOfBoundsException if the region is outside of the sequence.
+     */
+    public boolean contains(final CharSequence iban, final int offset, final int length) {
+        return find(iban, offset, length) >= 0;
+    }
+
+    /**
+     * Looks up the ascii encoded iban stored in the specified region of the array.
+     *
+     * @param iban the array holding the iban in electronic format.
+     * @param offset the index of the first byte of the iban.
+     * @param length the length of the iban.
+     * @return true if the iban is contained.
+     * @throws IndexOutOfBoundsException if the region is outside of the array.
+     */
+    public boolean contains(final byte[] iban, final int offset, final int length) {
+        return find(iban, offset, length) >= 0;
+    }
+
+    /**
+     * Looks up the ascii encoded iban stored in the specified region of the buffer.
+     * The position and the limit of the buffer are not changed.
+     *
+     * @param iban the buffer holding the iban in electronic format.
+     * @param offset the absolute index of the first byte of the iban.
+     * @param length the length of the iban.
+     * @return true if the iban is contained.
+     * @throws IndexOutOfBoundsException if the region is outside of the buffer's limit.
+     */
+    public boolean contains(final ByteBuffer iban, final int offset, final int length) {
+        return find(iban, offset, length) >= 0;
+    }
+
+    /**
+     * Removes the iban.
+     *
+     * @param iban the iban to be removed.
+     * @return true if the iban was contained.
+     */
+    public boolean remove(final PackedIban iban) {
+        return iban != null && removeSlot(find(iban));
+    }
+
+    /**
+     * Removes the iban.
+     *
+     * @param iban the iban to be removed, in electronic format.
+     * @return true if the iban was contained.
+     */
+    public boolean remove(final CharSequence iban) {
+        return iban != null && removeSlot(find(iban, 0, iban.length()));
+    }
+
+    private boolean removeSlot(final int slot) {
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    /**
+     * Returns an iterator over the packed ibans, in no particular order.
+     * The iterator doesn't support removal.
+     */
+    @Override
+    public Iterator<PackedIban> iterator() {
+        return keyIterator();
+    }
+
+    @Override
+    void beginRehash(final int capacity) {
+    }
+
+    @Override
+    void rehashValue(final int from, final int to) {
+    }
+
+    @Override
+    void endRehash() {
+    }
+
+    @Override
+    void moveValue(final int from, final int to) {
+    }
+
+    @Override
+    void clearValue(final int slot) {
+    }
+}
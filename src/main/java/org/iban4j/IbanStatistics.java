@@ -0,0 +1,144 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.iban4j.IbanFormatException.IbanFormatViolation;
+
+/**
+ * Counts of a bulk validation: valid ibans, invalid ibans by violation and ibans by country.
+ *
+ * Every validation task counts into its own instance, and instances are merged when
+ * tasks are done, so threads never write to shared counters. Instances are not thread safe.
+ *
+ * @see IbanUtil#validateInParallel(CharSequence[], java.util.concurrent.ExecutorService)
+ */
+public final class IbanStatistics {
+
+    private static final CountryCode[] COUNTRY_CODES = CountryCode.values();
+
+    private long count;
+    private long validCount;
+    private final long[] violationCounts = new long[IbanFormatViolation.values().length];
+    private final long[] countryCounts = new long[COUNTRY_CODES.length];
+    private final long[] countryValidCounts = new long[COUNTRY_CODES.length];
+
+    /**
+     * Creates empty statistics.
+     */
+    public IbanStatistics() {
+    }
+
+    /**
+     * Counts the status returned by {@link IbanUtil#checkStatus(CharSequence, int, int)}.
+     *
+     * @param countryCode the country code of the iban, or null if it has none.
+     */
+    void add(final int status, final CountryCode countryCode) {
+        count++;
+        final boolean valid = status == IbanUtil.VALID;
+        if (valid) {
+            validCount++;
+        } else {
+            violationCounts[IbanUtil.violationOf(status).ordinal()]++;
+        }
+        if (countryCode != null) {
+            countryCounts[countryCode.ordinal()]++;
+            if (valid) {
+                countryValidCounts[countryCode.ordinal()]++;
+            }
+        }
+    }
+
+    /**
+     * Adds the counts of other statistics to this one.
+     *
+     * @param other statistics to be added.
+     * @return this statistics.
+     */
+    public IbanStatistics merge(final IbanStatistics other) {
+        count += other.count;
+        validCount += other.validCount;
+        for (int i = 0; i < violationCounts.length; i++) {
+            violationCounts[i] += other.violationCounts[i];
+        }
+        for (int i = 0; i < countryCounts.length; i++) {
+            countryCounts[i] += other.countryCounts[i];
+            countryValidCounts[i] += other.countryValidCounts[i];
+        }
+        return this;
+    }
+
+    /**
+     * @return the number of validated entries.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the number of valid entries.
+     */
+    public long getValidCount() {
+        return validCount;
+    }
+
+    /**
+     * @return the number of invalid entries.
+     */
+    public long getInvalidCount() {
+        return count - validCount;
+    }
+
+    /**
+     * @param violation the violation.
+     * @return the number of entries which failed with the violation.
+     */
+    public long getCount(final IbanFormatViolation violation) {
+        return violationCounts[violation.ordinal()];
+    }
+
+    /**
+     * Returns the number of entries starting with the country code, valid or not.
+     * Country codes are matched case insensitively.
+     *
+     * @param countryCode the country code.
+     * @return the number of entries of the country.
+     */
+    public long getCount(final CountryCode countryCode) {
+        return countryCounts[countryCode.ordinal()];
+    }
+
+    /**
+     * @param countryCode the country code.
+     * @return the number of valid ibans of the country.
+     */
+    public long getValidCount(final CountryCode countryCode) {
+        return countryValidCounts[countryCode.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("count: ").append(count).append(", valid: ").append(validCount);
+        final IbanFormatViolation[] violations = IbanFormatViolation.values();
+        for (int i = 0; i < violationCounts.length; i++) {
+            if (violationCounts[i] != 0) {
+                sb.append(", ").append(violations[i]).append(": ").append(violationCounts[i]);
+            }
+        }
+        return sb.toString();
+    }
+}
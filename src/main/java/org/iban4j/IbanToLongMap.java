@@ -0,0 +1,236 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+
+/**
+ * Map from ibans to long values, keys are stored in packed form.
+ *
+ * Lookups from a CharSequence, a byte array or a ByteBuffer don't create an Iban.
+ * Absent keys are reported by the no entry value, 0 unless specified.
+ *
+ * This class is not thread safe.
+ */
+public final class IbanToLongMap extends PackedIbanTable {
+
+    private final long noEntryValue;
+    private long[] values;
+    private long[] previousValues;
+
+    /**
+     * Creates an empty map with no entry value 0.
+     */
+    public IbanToLongMap() {
+        this(0, 0);
+    }
+
+    /**
+     * Creates an empty map which holds the expected number of entries without resizing.
+     *
+     * @param expectedSize the expected number of entries.
+     * @param noEntryValue the value returned for absent keys.
+     */
+    public IbanToLongMap(final int expectedSize, final long noEntryValue) {
+        super(expectedSize);
+        this.noEntryValue = noEntryValue;
+        this.values = new long[capacity()];
+    }
+
+    /**
+     * @return the value returned for absent keys.
+     */
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    /**
+     * Associates the value with the iban.
+     *
+     * @return the previous value, or the no entry value if the iban was absent.
+     */
+    public long put(final Iban iban, final long value) {
+        return put(PackedIban.valueOf(iban), value);
+    }
+
+    /**
+     * Associates the value with the iban.
+     *
+     * @return the previous value, or the no entry value if the iban was absent.
+     */
+    public long put(final PackedIban iban, final long value) {
+        return putAt(insert(iban), value);
+    }
+
+    /**
+     * Validates the iban and associates the value with it.
+     *
+     * @return the previous value, or the no entry value if the iban was absent.
+     * @throws IbanFormatException if iban is invalid.
+     *         UnsupportedCountryException if iban's country is not supported.
+     *         InvalidCheckDigitException if iban has invalid check digit.
+     */
+    public long put(final CharSequence iban, final long value) throws IbanFormatException,
+            InvalidCheckDigitException, UnsupportedCountryException {
+        return putAt(insert(iban), value);
+    }
+
+    private long putAt(final int slot, final long value) {
+        if (slot < 0) {
+            values[~slot] = value;
+            return noEntryValue;
+        }
+        final long previous = values[slot];
+        values[slot] = value;
+        return previous;
+    }
+
+    /**
+     * @return the value of the iban, or the no entry value if it is absent.
+     */
+    public long get(final Iban iban) {
+        return iban == null ? noEntryValue : get(iban.toString());
+    }
+
+    /**
+     * @return the value of the iban, or the no entry value if it is absent.
+     */
+    public long get(final PackedIban iban) {
+        return iban == null ? noEntryValue : valueAt(find(iban));
+    }
+
+    /**
+     * @param iban the iban in electronic format.
+     * @return the value of the iban, or the no entry value if it is absent.
+     */
+    public long get(final CharSequence iban) {
+        return iban == null ? noEntryValue : valueAt(find(iban, 0, iban.length()));
+    }
+
+    /**
+     * Looks up the iban stored in the specified region of the sequence.
+     *
+     * @return the value of the iban, or the no entry value if it is absent.
+     * @throws IndexOutOfBoundsException if the region is outside of the sequence.
+     */
+    public long get(final CharSequence iban, final int offset, final int length) {
+        return valueAt(find(iban, offset, length));
+    }
+
+    /**
+     * Looks up the ascii encoded iban stored in the specified region of the array.
+     *
+     * @return the value of the iban, or the no entry value if it is absent.
+     * @throws IndexOutOfBoundsException if the region is outside of the array.
+     */
+    public long get(final byte[] iban, final int offset, final int length) {
+        return valueAt(find(iban, offset, length));
+    }
+
+    /**
+     * Looks up the ascii encoded iban stored in the specified region of the buffer.
+     * The position and the limit of the buffer are not changed.
+     *
+     * @return the value of the iban, or the no entry value if it is absent.
+     * @throws IndexOutOfBoundsException if the region is outside of the buffer's limit.
+     */
+    public long get(final ByteBuffer iban, final int offset, final int length) {
+        return valueAt(find(iban, offset, length));
+    }
+
+    private long valueAt(final int slot) {
+        return slot < 0 ? noEntryValue : values[slot];
+    }
+
+    /**
+     * @return true if a value is associated with the iban.
+     */
+    public boolean containsKey(final PackedIban iban) {
+        return iban != null && find(iban) >= 0;
+    }
+
+    /**
+     * @param iban the iban in electronic format.
+     * @return true if a value is associated with the iban.
+     */
+    public boolean containsKey(final CharSequence iban) {
+        return iban != null && find(iban, 0, iban.length()) >= 0;
+    }
+
+    /**
+     * Removes the iban.
+     *
+     * @return the removed value, or the no entry value if the iban was absent.
+     */
+    public long remove(final PackedIban iban) {
+        return iban == null ? noEntryValue : removeSlot(find(iban));
+    }
+
+    /**
+     * Removes the iban.
+     *
+     * @param iban the iban in electronic format.
+     * @return the removed value, or the no entry value if the iban was absent.
+     */
+    public long remove(final CharSequence iban) {
+        return iban == null ? noEntryValue : removeSlot(find(iban, 0, iban.length()));
+    }
+
+    private long removeSlot(final int slot) {
+        if (slot < 0) {
+            return noEntryValue;
+        }
+        final long value = values[slot];
+        removeAt(slot);
+        return value;
+    }
+
+    /**
+     * Returns an iterator over the keys, in no particular order.
+     * The iterator doesn't support removal.
+     */
+    @Override
+    public Iterator<PackedIban> keyIterator() {
+        return super.keyIterator();
+    }
+
+    @Override
+    void beginRehash(final int capacity) {
+        previousValues = values;
+        values = new long[capacity];
+    }
+
+    @Override
+    void rehashValue(final int from, final int to) {
+        values[to] = previousValues[from];
+    }
+
+    @Override
+    void endRehash() {
+        previousValues = null;
+    }
+
+    @Override
+    void moveValue(final int from, final int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(final int slot) {
+        values[slot] = 0;
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+
+/**
+ * Map from ibans to objects, keys are stored in packed form.
+ *
+ * Lookups from a CharSequence, a byte array or a ByteBuffer don't create an Iban.
+ * Values must not be null, absent keys are reported by null.
+ *
+ * This class is not thread safe.
+ *
+ * @param <V> the type of the values.
+ */
+public final class IbanToObjectMap<V> extends PackedIbanTable {
+
+    private Object[] values;
+    private Object[] previousValues;
+
+    /**
+     * Creates an empty map.
+     */
+    public IbanToObjectMap() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty map which holds the expected number of entries without resizing.
+     *
+     * @param expectedSize the expected number of entries.
+     */
+    public IbanToObjectMap(final int expectedSize) {
+        super(expectedSize);
+        this.values = new Object[capacity()];
+    }
+
+    /**
+     * Associates the value with the iban.
+     *
+     * @return the previous value, or null if the iban was absent.
+     */
+    public V put(final Iban iban, final V value) {
+        return put(PackedIban.valueOf(iban), value);
+    }
+
+    /**
+     * Associates the value with the iban.
+     *
+     * @return the previous value, or null if the iban was absent.
+     */
+    public V put(final PackedIban iban, final V value) {
+        checkValue(value);
+        return putAt(insert(iban), value);
+    }
+
+    /**
+     * Validates the iban and associates the value with it.
+     *
+     * @return the previous value, or null if the iban was absent.
+     * @throws IbanFormatException if iban is invalid.
+     *         UnsupportedCountryException if iban's country is not supported.
+     *         InvalidCheckDigitException if iban has invalid check digit.
+     */
+    public V put(final CharSequence iban, final V value) throws IbanFormatException,
+            InvalidCheckDigitException, UnsupportedCountryException {
+        checkValue(value);
+        return putAt(insert(iban), value);
+    }
+
+    private static void checkValue(final Object value) {
+        if (value == null) {
+            throw new NullPointerException("Value must not be null.");
+        }
+    }
+
+    private V putAt(final int slot, final V value) {
+        if (slot < 0) {
+            values[~slot] = value;
+            return null;
+        }
+        final V previous = valueAt(slot);
+        values[slot] = value;
+        return previous;
+    }
+
+    /**
+     * @return the value of the iban, or null if it is absent.
+     */
+    public V get(final Iban iban) {
+        return iban == null ? null : get(iban.toString());
+    }
+
+    /**
+     * @return the value of the iban, or null if it is absent.
+     */
+    public V get(final PackedIban iban) {
+        return iban == null ? null : valueAt(find(iban));
+    }
+
+    /**
+     * @param iban the iban in electronic format.
+     * @return the value of the iban, or null if it is absent.
+     */
+    public V get(final CharSequence iban) {
+        return iban == null ? null : valueAt(find(iban, 0, iban.length()));
+    }
+
+    /**
+     * Looks up the iban stored in the specified region of the sequence.
+     *
+     * @return the value of the iban, or null if it is absent.
+     * @throws IndexOutOfBoundsException if the region is outside of the sequence.
+     */
+    public V get(final CharSequence iban, final int offset, final int length) {
+        return valueAt(find(iban, offset, length));
+    }
+
+    /**
+     * Looks up the ascii encoded iban stored in the specified region of the array.
+     *
+     * @return the value of the iban, or null if it is absent.
+     * @throws IndexOutOfBoundsException if the region is outside of the array.
+     */
+    public V get(final byte[] iban, final int offset, final int length) {
+        return valueAt(find(iban, offset, length));
+    }
+
+    /**
+     * Looks up the ascii encoded iban stored in the specified region of the buffer.
+     * The position and the limit of the buffer are not changed.
+     *
+     * @return the value of the iban, or null if it is absent.
+     * @throws IndexOutOfBoundsException if the region is outside of the buffer's limit.
+     */
+    public V get(final ByteBuffer iban, final int offset, final int length) {
+        return valueAt(find(iban, offset, length));
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(final int slot) {
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    /**
+     * @return true if a value is associated with the iban.
+     */
+    public boolean containsKey(final PackedIban iban) {
+        return iban != null && find(iban) >= 0;
+    }
+
+    /**
+     * @param iban the iban in electronic format.
+     * @return true if a value is associated with the iban.
+     */
+    public boolean containsKey(final CharSequence iban) {
+        return iban != null && find(iban, 0, iban.length()) >= 0;
+    }
+
+    /**
+     * Removes the iban.
+     *
+     * @return the removed value, or null if the iban was absent.
+     */
+    public V remove(final PackedIban iban) {
+        return iban == null ? null : removeSlot(find(iban));
+    }
+
+    /**
+     * Removes the iban.
+     *
+     * @param iban the iban in electronic format.
+     * @return the removed value, or null if the iban was absent.
+     */
+    public V remove(final CharSequence iban) {
+        return iban == null ? null : removeSlot(find(iban, 0, iban.length()));
+    }
+
+    private V removeSlot(final int slot) {
+        if (slot < 0) {
+            return null;
+        }
+        final V value = valueAt(slot);
+        removeAt(slot);
+        return value;
+    }
+
+    /**
+     * Returns an iterator over the keys, in no particular order.
+     * The iterator doesn't support removal.
+     */
+    @Override
+    public Iterator<PackedIban> keyIterator() {
+        return super.keyIterator();
+    }
+
+    @Override
+    void beginRehash(final int capacity) {
+        previousValues = values;
+        values = new Object[capacity];
+    }
+
+    @Override
+    void rehashValue(final int from, final int to) {
+        values[to] = previousValues[from];
+    }
+
+    @Override
+    void endRehash() {
+        previousValues = null;
+    }
+
+    @Override
+    void moveValue(final int from, final int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(final int slot) {
+        values[slot] = null;
+    }
+}
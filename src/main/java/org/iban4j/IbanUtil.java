@@ -15,28 +15,54 @@
  */
 package org.iban4j;
 
+import org.iban4j.IbanFormatException.IbanFormatViolation;
 import org.iban4j.bban.BbanEntryType;
 import org.iban4j.bban.BbanStructure;
 import org.iban4j.bban.BbanStructureEntry;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.iban4j.IbanFormatException.IbanFormatViolation.*;
 /**
  * Iban Utility Class
  */
 public final class IbanUtil {
 
-    private static final int MOD = 97;
-    private static final long MAX = 999999999;
-
     private static final int COUNTRY_CODE_INDEX = 0;
     private static final int COUNTRY_CODE_LENGTH = 2;
     private static final int CHECK_DIGIT_INDEX = COUNTRY_CODE_LENGTH;
     private static final int CHECK_DIGIT_LENGTH = 2;
-    private static final int BBAN_INDEX = CHECK_DIGIT_INDEX + CHECK_DIGIT_LENGTH;
+    static final int BBAN_INDEX = CHECK_DIGIT_INDEX + CHECK_DIGIT_LENGTH;
 
     private static final String ASSERT_UPPER_LETTERS = "[%s] must contain only upper case letters.";
     private static final String ASSERT_DIGITS_AND_LETTERS = "[%s] must contain only digits or letters.";
     private static final String ASSERT_DIGITS = "[%s] must contain only digits.";
+    static final String FORMATTING_MESSAGE =
+            "Iban must be formatted using 4 characters and space combination. Instead of [%s]";
+    private static final String NATIONAL_FORMATTING_MESSAGE =
+            "Iban must be formatted using bban entries and space combination. Instead of [%s]";
+
+    /**
+     * Status of a valid iban, see {@link #checkStatus(CharSequence, int, int)}.
+     */
+    static final int VALID = -1;
+
+    private static final IbanFormatViolation[] VIOLATIONS = IbanFormatViolation.values();
+
+    /**
+     * Number of ibans a parallel task takes at once. Validation of an iban is
+     * cheap, so chunks are big enough to keep contention on the chunk counter negligible.
+     */
+    static final int PARALLEL_CHUNK_SIZE = 1 << 14;
 
     private IbanUtil() {
     }
@@ -51,10 +77,7 @@ public final class IbanUtil {
      * @return check digit as String
      */
     public static String calculateCheckDigit(final String iban) throws IbanFormatException {
-        final String reformattedIban = replaceCheckDigit(iban,
-                Iban.DEFAULT_CHECK_DIGIT);
-        final int modResult = calculateMod(reformattedIban);
-        final int checkDigitIntValue = (98 - modResult);
+        final int checkDigitIntValue = Mod97.calculateCheckDigit(iban, 0, iban.length());
         final String checkDigit = Integer.toString(checkDigitIntValue);
         return checkDigitIntValue > 9 ? checkDigit : "0" + checkDigit;
     }
@@ -69,17 +92,33 @@ public final class IbanUtil {
      */
     public static void validate(final String iban) throws IbanFormatException,
             InvalidCheckDigitException, UnsupportedCountryException {
-        try {
-            validateEmpty(iban);
-            validateCountryCode(iban);
-            validateCheckDigitPresence(iban);
-
-            final BbanStructure structure = getBbanStructure(iban);
-
-            validateBbanLength(iban, structure);
-            validateBbanEntries(iban, structure);
+        validate(iban, 0, iban == null ? 0 : iban.length());
+    }
 
-            validateCheckDigit(iban);
+    /**
+     * Validates iban which is stored in the specified region of a character sequence.
+     * Characters are checked in place, so nothing is allocated when iban is valid.
+     *
+     * @param iban the character sequence holding the iban.
+     * @param offset the index of the first iban character.
+     * @param length the number of iban characters.
+     * @throws IbanFormatException if iban is invalid.
+     *         UnsupportedCountryException if iban's country is not supported.
+     *         InvalidCheckDigitException if iban has invalid check digit.
+     * @throws IndexOutOfBoundsException if offset and length are out of sequence bounds.
+     */
+    public static void validate(final CharSequence iban, final int offset, final int length)
+            throws IbanFormatException, InvalidCheckDigitException, UnsupportedCountryException {
+        if (iban != null && (offset < 0 || length < 0 || offset > iban.length() - length)) {
+            throw new IndexOutOfBoundsException(
+                    String.format("offset: %d, length: %d, sequence length: %d",
+                            offset, length, iban.length()));
+        }
+        try {
+            final int status = checkStatus(iban, offset, length);
+            if (status != VALID) {
+                throw newException(status, iban, offset, length);
+            }
         } catch (Iban4jException e) {
             throw e;
         } catch (RuntimeException e) {
@@ -87,6 +126,90 @@ public final class IbanUtil {
         }
     }
 
+    /**
+     * Validates ascii encoded iban which is stored in the specified region of a byte array.
+     * Bytes are checked in place, without decoding them into a String.
+     *
+     * @param iban the byte array holding the iban.
+     * @param offset the index of the first iban byte.
+     * @param length the number of iban bytes.
+     * @throws IbanFormatException if iban is invalid.
+     *         UnsupportedCountryException if iban's country is not supported.
+     *         InvalidCheckDigitException if iban has invalid check digit.
+     * @throws IndexOutOfBoundsException if offset and length are out of array bounds.
+     */
+    public static void validate(final byte[] iban, final int offset, final int length)
+            throws IbanFormatException, InvalidCheckDigitException, UnsupportedCountryException {
+        checkRegion(iban.length, offset, length);
+        validate(new AsciiSequence(iban, offset, length), 0, length);
+    }
+
+    /**
+     * Validates ascii encoded iban which is stored in the specified region of a byte buffer.
+     * Bytes are read with absolute gets, the position of the buffer is not changed.
+     *
+     * @param iban the byte buffer holding the iban.
+     * @param offset the index of the first iban byte.
+     * @param length the number of iban bytes.
+     * @throws IbanFormatException if iban is invalid.
+     *         UnsupportedCountryException if iban's country is not supported.
+     *         InvalidCheckDigitException if iban has invalid check digit.
+     * @throws IndexOutOfBoundsException if offset and length are out of buffer limit.
+     */
+    public static void validate(final ByteBuffer iban, final int offset, final int length)
+            throws IbanFormatException, InvalidCheckDigitException, UnsupportedCountryException {
+        checkRegion(iban.limit(), offset, length);
+        validate(new AsciiSequence(iban, offset, length), 0, length);
+    }
+
+    static void checkRegion(final int size, final int offset, final int length) {
+        if (offset < 0 || length < 0 || offset > size - length) {
+            throw new IndexOutOfBoundsException(
+                    String.format("offset: %d, length: %d, size: %d", offset, length, size));
+        }
+    }
+
+    /**
+     * Checks iban without throwing an exception if it is invalid.
+     *
+     * @param iban to be checked.
+     * @return result holding the violation, if any.
+     */
+    public static IbanValidationResult check(final CharSequence iban) {
+        final IbanValidationResult result = new IbanValidationResult();
+        check(iban, 0, iban == null ? 0 : iban.length(), result);
+        return result;
+    }
+
+    /**
+     * Checks iban which is stored in the specified region of a character sequence
+     * without throwing an exception if it is invalid. Nothing is allocated, so the
+     * result can be reused for checking many ibans.
+     *
+     * @param iban the character sequence holding the iban.
+     * @param offset the index of the first iban character.
+     * @param length the number of iban characters.
+     * @param result to be filled with the violation, if any.
+     * @return true if iban is valid, false otherwise.
+     * @throws IndexOutOfBoundsException if offset and length are out of sequence bounds.
+     */
+    public static boolean check(final CharSequence iban, final int offset, final int length,
+                                final IbanValidationResult result) {
+        if (iban != null && (offset < 0 || length < 0 || offset > iban.length() - length)) {
+            throw new IndexOutOfBoundsException(
+                    String.format("offset: %d, length: %d, sequence length: %d",
+                            offset, length, iban.length()));
+        }
+        int status;
+        try {
+            status = checkStatus(iban, offset, length);
+        } catch (RuntimeException e) {
+            status = status(UNKNOWN, 0);
+        }
+        result.set(status, iban, offset, length);
+        return status == VALID;
+    }
+
     /**
      * Validates iban.
      *
@@ -100,13 +223,10 @@ public final class IbanUtil {
             InvalidCheckDigitException, UnsupportedCountryException {
         switch (format) {
             case Default:
-                final String ibanWithoutSpaces = iban.replace(" ", "");
-                validate(ibanWithoutSpaces);
-                if(!toFormattedString(ibanWithoutSpaces).equals(iban)) {
-                    throw new IbanFormatException(IBAN_FORMATTING,
-                            String.format("Iban must be formatted using 4 characters and space combination. " +
-                                    "Instead of [%s]", iban));
-                }
+            case Lenient:
+            case National:
+            case Masked:
+                parse(iban, format);
                 break;
             default:
                 validate(iban);
@@ -114,6 +234,261 @@ public final class IbanUtil {
         }
     }
 
+    /**
+     * Parses formatted or lenient input in a single pass: separators are
+     * dropped, lower case letters are upper cased in lenient format, and modulo 97
+     * is computed while the electronic format is copied out. The grouping of
+     * {@link IbanFormat#Default} input is checked on the way, but reported only
+     * if the iban itself is valid, as {@link #validate(String, IbanFormat)} always did.
+     *
+     * @return the iban in electronic format.
+     */
+    static String parse(final String iban, final IbanFormat format) throws IbanFormatException,
+            InvalidCheckDigitException, UnsupportedCountryException {
+        if (iban == null) {
+            throw newException(status(IBAN_NOT_NULL, 0), null, 0, 0);
+        }
+        if (format == IbanFormat.Masked) {
+            throw new IllegalArgumentException("Masked ibans can't be parsed.");
+        }
+        final boolean lenient = format == IbanFormat.Lenient;
+        final boolean print = format == IbanFormat.Default;
+        final int inputLength = iban.length();
+        final char[] chars = new char[inputLength];
+        int length = 0;
+        boolean grouped = !print || inputLength == 0 || iban.charAt(inputLength - 1) != ' ';
+        long total = 0;
+        int invalidIndex = -1;
+        for (int i = 0; i < inputLength; i++) {
+            char ch = iban.charAt(i);
+            if (lenient) {
+                if (isSeparator(ch)) {
+                    continue;
+                }
+                if (ch >= 'a' && ch <= 'z') {
+                    ch -= 'a' - 'A';
+                }
+            } else {
+                // a single space follows every group of four characters
+                final boolean space = ch == ' ';
+                grouped &= !print || space == (i % 5 == 4);
+                if (space) {
+                    continue;
+                }
+            }
+            if (length >= BBAN_INDEX) {
+                final int value = Mod97.numericValue(ch);
+                if (value < 0) {
+                    if (invalidIndex < 0) {
+                        invalidIndex = length - BBAN_INDEX;
+                    }
+                } else {
+                    total = Mod97.accumulate(total, value);
+                }
+            }
+            chars[length++] = ch;
+        }
+        final int bbanLength = length - BBAN_INDEX;
+        for (int i = 0; i < BBAN_INDEX && i < length; i++) {
+            final int value = Mod97.numericValue(chars[i]);
+            if (value < 0) {
+                if (invalidIndex < 0) {
+                    invalidIndex = bbanLength + i;
+                }
+            } else {
+                total = Mod97.accumulate(total, value);
+            }
+        }
+
+        final String electronic = new String(chars, 0, length);
+        int status = checkStructure(electronic, 0, length);
+        if (status == VALID) {
+            status = modStatus(invalidIndex >= 0 ? -1 - invalidIndex : Mod97.remainder(total), length);
+        }
+        if (status != VALID) {
+            throw newException(status, electronic, 0, length);
+        }
+        if (!grouped) {
+            throw new IbanFormatException(IBAN_FORMATTING, null, null,
+                    FORMATTING_MESSAGE, new Object[] {iban});
+        }
+        if (format == IbanFormat.National && !isNationallyFormatted(iban, electronic)) {
+            throw new IbanFormatException(IBAN_FORMATTING, null, null,
+                    NATIONAL_FORMATTING_MESSAGE, new Object[] {iban});
+        }
+        return electronic;
+    }
+
+    private static boolean isNationallyFormatted(final String iban, final String electronic) {
+        final StringBuilder national = new StringBuilder(iban.length());
+        try {
+            appendNational(electronic, national);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return national.toString().equals(iban);
+    }
+
+    private static boolean isSeparator(final char ch) {
+        return ch == ' ' || ch == '\t' || ch == '-' || ch == '\u00A0';
+    }
+
+    /**
+     * Validates all ibans of the array without throwing an exception per invalid iban.
+     *
+     * @param ibans to be validated.
+     * @return batch result holding the validity and violation of every iban.
+     */
+    public static IbanBatchResult validateAll(final CharSequence[] ibans) {
+        return validateAll(ibans, 0, ibans.length);
+    }
+
+    /**
+     * Validates ibans of the specified array range without throwing an exception per invalid iban.
+     *
+     * @param ibans to be validated.
+     * @param fromIndex the index of the first iban to be validated, inclusive.
+     * @param toIndex the index of the last iban to be validated, exclusive.
+     * @return batch result holding the validity and violation of every iban,
+     *         indexed relative to fromIndex.
+     * @throws IndexOutOfBoundsException if the range is out of array bounds.
+     */
+    public static IbanBatchResult validateAll(final CharSequence[] ibans,
+                                              final int fromIndex,
+                                              final int toIndex) {
+        if (fromIndex < 0 || toIndex > ibans.length || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException(
+                    String.format("fromIndex: %d, toIndex: %d, length: %d",
+                            fromIndex, toIndex, ibans.length));
+        }
+        final IbanBatchResult result = new IbanBatchResult(toIndex - fromIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            checkInto(ibans[i], i - fromIndex, result);
+        }
+        return result;
+    }
+
+    /**
+     * Validates all ibans of the list without throwing an exception per invalid iban.
+     *
+     * @param ibans to be validated.
+     * @return batch result holding the validity and violation of every iban.
+     */
+    public static IbanBatchResult validateAll(final List<? extends CharSequence> ibans) {
+        final IbanBatchResult result = new IbanBatchResult(ibans.size());
+        int index = 0;
+        for (final CharSequence iban : ibans) {
+            checkInto(iban, index++, result);
+        }
+        return result;
+    }
+
+    /**
+     * Validates all ibans of the array in chunks, which are run by the executor,
+     * and counts the results. At most one task per available processor is
+     * submitted, each task takes chunks until none is left.
+     *
+     * @param ibans to be validated.
+     * @param executor runs validation of the chunks.
+     * @return statistics of all ibans.
+     * @throws InterruptedException if interrupted while waiting for the chunks.
+     */
+    public static IbanStatistics validateInParallel(final CharSequence[] ibans,
+                                                    final ExecutorService executor)
+            throws InterruptedException {
+        return validateInParallel(ibans, 0, ibans.length, executor);
+    }
+
+    /**
+     * Validates ibans of the specified array range in chunks, which are run by
+     * the executor, and counts the results.
+     *
+     * @param ibans to be validated.
+     * @param fromIndex the index of the first iban to be validated, inclusive.
+     * @param toIndex the index of the last iban to be validated, exclusive.
+     * @param executor runs validation of the chunks.
+     * @return statistics of the ibans in range.
+     * @throws IndexOutOfBoundsException if the range is out of array bounds.
+     * @throws InterruptedException if interrupted while waiting for the chunks.
+     */
+    public static IbanStatistics validateInParallel(final CharSequence[] ibans,
+                                                    final int fromIndex,
+                                                    final int toIndex,
+                                                    final ExecutorService executor)
+            throws InterruptedException {
+        if (fromIndex < 0 || toIndex > ibans.length || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException(
+                    String.format("fromIndex: %d, toIndex: %d, length: %d",
+                            fromIndex, toIndex, ibans.length));
+        }
+        return validateChunks(Arrays.asList(ibans), fromIndex, toIndex, executor);
+    }
+
+    /**
+     * Validates all ibans of the list in chunks, which are run by the executor,
+     * and counts the results. The list should support fast random access.
+     *
+     * @param ibans to be validated.
+     * @param executor runs validation of the chunks.
+     * @return statistics of all ibans.
+     * @throws InterruptedException if interrupted while waiting for the chunks.
+     */
+    public static IbanStatistics validateInParallel(final List<? extends CharSequence> ibans,
+                                                    final ExecutorService executor)
+            throws InterruptedException {
+        return validateChunks(ibans, 0, ibans.size(), executor);
+    }
+
+    /**
+     * Runs one task per available processor at most, rather than one per chunk,
+     * so only that many partial statistics are alive until they are merged.
+     */
+    private static IbanStatistics validateChunks(final List<? extends CharSequence> ibans,
+                                                 final int fromIndex,
+                                                 final int toIndex,
+                                                 final ExecutorService executor)
+            throws InterruptedException {
+        final int size = toIndex - fromIndex;
+        final int chunkCount = size == 0 ? 0 : (size - 1) / PARALLEL_CHUNK_SIZE + 1;
+        final int taskCount = Math.min(chunkCount, Runtime.getRuntime().availableProcessors());
+        final AtomicInteger nextChunk = new AtomicInteger();
+        final List<Callable<IbanStatistics>> tasks = new ArrayList<Callable<IbanStatistics>>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(new Callable<IbanStatistics>() {
+                public IbanStatistics call() {
+                    final IbanStatistics statistics = new IbanStatistics();
+                    int chunk;
+                    while ((chunk = nextChunk.getAndIncrement()) < chunkCount) {
+                        final int chunkStart = fromIndex + chunk * PARALLEL_CHUNK_SIZE;
+                        final int chunkEnd = chunkStart + Math.min(toIndex - chunkStart, PARALLEL_CHUNK_SIZE);
+                        for (int j = chunkStart; j < chunkEnd; j++) {
+                            countInto(ibans.get(j), statistics);
+                        }
+                    }
+                    return statistics;
+                }
+            });
+        }
+        return merge(executor.invokeAll(tasks));
+    }
+
+    private static IbanStatistics merge(final List<Future<IbanStatistics>> futures)
+            throws InterruptedException {
+        final IbanStatistics statistics = new IbanStatistics();
+        for (final Future<IbanStatistics> future : futures) {
+            try {
+                statistics.merge(future.get());
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw (RuntimeException) cause;
+            }
+        }
+        return statistics;
+    }
+
     /**
      * Checks whether country is supporting iban.
      * @param countryCode {@link org.iban4j.CountryCode}
@@ -288,181 +663,374 @@ public final class IbanUtil {
      * @return A string representing formatted Iban for printing.
      */
     static String toFormattedString(final String iban) {
-        final StringBuilder ibanBuffer = new StringBuilder(iban);
-        final int length = ibanBuffer.length();
-
-        for (int i = 0; i < length / 4; i++) {
-            ibanBuffer.insert((i + 1) * 4 + i, ' ');
+        final int length = iban.length();
+        final char[] formatted = new char[formattedLength(length)];
+        int index = 0;
+        for (int i = 0; i < length; i++) {
+            if (i > 0 && (i & 3) == 0) {
+                formatted[index++] = ' ';
+            }
+            formatted[index++] = iban.charAt(i);
         }
+        return new String(formatted);
+    }
 
-        return ibanBuffer.toString().trim();
+    /**
+     * Appends formatted version of the iban, grouped like {@link #toFormattedString(String)}.
+     *
+     * @throws IOException if the appendable throws it.
+     */
+    static void appendFormatted(final CharSequence iban, final Appendable appendable) throws IOException {
+        final int length = iban.length();
+        for (int i = 0; i < length; i++) {
+            if (i > 0 && (i & 3) == 0) {
+                appendable.append(' ');
+            }
+            appendable.append(iban.charAt(i));
+        }
     }
 
-    private static void validateCheckDigit(final String iban) {
-        if (calculateMod(iban) != 1) {
-            final String checkDigit = getCheckDigit(iban);
-            final String expectedCheckDigit = calculateCheckDigit(iban);
-            throw new InvalidCheckDigitException(
-                    checkDigit, expectedCheckDigit,
-                    String.format("[%s] has invalid check digit: %s, " +
-                                    "expected check digit is: %s",
-                            iban, checkDigit, expectedCheckDigit));
+    /**
+     * Appends the iban in the specified format.
+     *
+     * @throws IOException if the appendable throws it.
+     */
+    static void appendFormatted(final IbanFormat format, final String iban,
+                                final Appendable appendable) throws IOException {
+        switch (format) {
+            case Default:
+                appendFormatted(iban, appendable);
+                break;
+            case National:
+                appendNational(iban, appendable);
+                break;
+            case Masked:
+                appendMasked(iban, MaskPolicy.DEFAULT, appendable);
+                break;
+            default:
+                appendable.append(iban);
+                break;
         }
     }
 
-    private static void validateEmpty(final String iban) {
-        if(iban == null) {
-            throw new IbanFormatException(IBAN_NOT_NULL,
-                    "Null can't be a valid Iban.");
+    private static void appendNational(final String iban, final Appendable appendable)
+            throws IOException {
+        final List<BbanStructureEntry> entries =
+                BbanStructure.forAlpha2(iban.charAt(0), iban.charAt(1)).getEntries();
+        appendable.append(iban, 0, BBAN_INDEX);
+        int index = BBAN_INDEX;
+        for (int i = 0; i < entries.size(); i++) {
+            final int length = entries.get(i).getLength();
+            appendable.append(' ').append(iban, index, index + length);
+            index += length;
         }
+    }
 
-        if(iban.length() == 0) {
-            throw new IbanFormatException(IBAN_NOT_EMPTY,
-                    "Empty string can't be a valid Iban.");
+    /**
+     * Validates the iban and appends it masked by the policy.
+     *
+     * @param iban the iban in electronic format.
+     * @param policy decides which characters are hidden.
+     * @param appendable the appendable to append to.
+     * @throws IbanFormatException if iban is invalid.
+     *         UnsupportedCountryException if iban's country is not supported.
+     *         InvalidCheckDigitException if iban has invalid check digit.
+     * @throws IOException if the appendable throws it.
+     */
+    public static void mask(final CharSequence iban, final MaskPolicy policy, final Appendable appendable)
+            throws IOException, IbanFormatException, InvalidCheckDigitException, UnsupportedCountryException {
+        final int length = iban == null ? 0 : iban.length();
+        validate(iban, 0, length);
+        appendMasked(iban, policy, appendable);
+    }
+
+    /**
+     * Appends the valid iban masked by the policy.
+     */
+    static void appendMasked(final CharSequence iban, final MaskPolicy policy,
+                             final Appendable appendable) throws IOException {
+        final long visible = policy.visibility(CountryCode.fromAlpha2(iban.charAt(0), iban.charAt(1)));
+        final char maskCharacter = policy.getMaskCharacter();
+        final boolean grouped = policy.isGrouped();
+        final int length = iban.length();
+        for (int i = 0; i < length; i++) {
+            if (grouped && i > 0 && (i & 3) == 0) {
+                appendable.append(' ');
+            }
+            appendable.append((visible >>> i & 1) != 0 ? iban.charAt(i) : maskCharacter);
         }
     }
 
-    private static void validateCountryCode(final String iban) {
+    /**
+     * Returns the length of the formatted version of an iban of the specified length.
+     */
+    static int formattedLength(final int length) {
+        return length == 0 ? 0 : length + (length - 1) / 4;
+    }
+
+    /**
+     * Checks iban stored in the specified region without throwing.
+     * Violations are detected in the same order as {@link #validate(String)} reports them.
+     *
+     * @return {@link #VALID} or the violation status, see {@link #violationOf(int)}
+     *         and {@link #positionOf(int)}.
+     */
+    static int checkStatus(final CharSequence iban, final int offset, final int length) {
+        final int status = checkStructure(iban, offset, length);
+        return status == VALID ? modStatus(Mod97.mod(iban, offset, length, false), length) : status;
+    }
+
+    /**
+     * Checks everything but the check digit, which is verified by {@link #modStatus(int, int)}.
+     */
+    private static int checkStructure(final CharSequence iban, final int offset, final int length) {
+        if(iban == null) {
+            return status(IBAN_NOT_NULL, 0);
+        }
+        if(length == 0) {
+            return status(IBAN_NOT_EMPTY, 0);
+        }
+
         // check if iban contains 2 char country code
-        if(iban.length() < COUNTRY_CODE_LENGTH) {
-            throw new IbanFormatException(COUNTRY_CODE_TWO_LETTERS, iban,
-                    "Iban must contain 2 char country code.");
+        if(length < COUNTRY_CODE_LENGTH) {
+            return status(COUNTRY_CODE_TWO_LETTERS, length);
         }
 
-        final String countryCode = getCountryCode(iban);
+        final char first = iban.charAt(offset + COUNTRY_CODE_INDEX);
+        final char second = iban.charAt(offset + COUNTRY_CODE_INDEX + 1);
 
         // check case sensitivity
-        if(!countryCode.equals(countryCode.toUpperCase()) ||
-            !Character.isLetter(countryCode.charAt(0)) ||
-            !Character.isLetter(countryCode.charAt(1))) {
-            throw new IbanFormatException(COUNTRY_CODE_UPPER_CASE_LETTERS, countryCode,
-                    "Iban country code must contain upper case letters.");
-        }
-
-        if(CountryCode.getByCode(countryCode) == null) {
-            throw new IbanFormatException(COUNTRY_CODE_EXISTS, countryCode,
-                    "Iban contains non existing country code.");
+        if(!isUpperCaseAsciiLetter(first) || !isUpperCaseAsciiLetter(second)) {
+            final String countryCode = String.valueOf(new char[] {first, second});
+            if(!countryCode.equals(countryCode.toUpperCase()) ||
+                !Character.isLetter(first) ||
+                !Character.isLetter(second)) {
+                final boolean firstIsUpperCase = Character.isLetter(first) &&
+                        Character.toUpperCase(first) == first;
+                return status(COUNTRY_CODE_UPPER_CASE_LETTERS, firstIsUpperCase ? 1 : 0);
+            }
         }
 
-        // check if country is supported
-        final BbanStructure structure = BbanStructure.forCountry(
-                CountryCode.getByCode(countryCode));
+        // the country code is only resolved to tell apart unknown and unsupported countries
+        final BbanStructure structure = BbanStructure.forAlpha2(first, second);
         if (structure == null) {
-            throw new UnsupportedCountryException(countryCode,
-                    "Country code is not supported.");
+            return CountryCode.fromAlpha2(first, second) == null
+                    ? status(COUNTRY_CODE_EXISTS, COUNTRY_CODE_INDEX)
+                    : status(COUNTRY_CODE_SUPPORTED, COUNTRY_CODE_INDEX);
         }
-    }
 
-    private static void validateCheckDigitPresence(final String iban) {
         // check if iban contains 2 digit check digit
-        if(iban.length() < COUNTRY_CODE_LENGTH + CHECK_DIGIT_LENGTH) {
-            throw new IbanFormatException(CHECK_DIGIT_TWO_DIGITS,
-                    iban.substring(COUNTRY_CODE_LENGTH),
-                    "Iban must contain 2 digit check digit.");
+        if(length < COUNTRY_CODE_LENGTH + CHECK_DIGIT_LENGTH) {
+            return status(CHECK_DIGIT_TWO_DIGITS, length);
+        }
+        for (int i = CHECK_DIGIT_INDEX; i < BBAN_INDEX; i++) {
+            if(!Character.isDigit(iban.charAt(offset + i))) {
+                return status(CHECK_DIGIT_ONLY_DIGITS, i);
+            }
         }
 
-        final String checkDigit = getCheckDigit(iban);
+        final int expectedLength = BBAN_INDEX + structure.getBbanLength();
+        if (length != expectedLength) {
+            return status(BBAN_LENGTH, Math.min(length, expectedLength));
+        }
 
-        // check digits
-        if(!Character.isDigit(checkDigit.charAt(0)) ||
-           !Character.isDigit(checkDigit.charAt(1))) {
-            throw new IbanFormatException(CHECK_DIGIT_ONLY_DIGITS, checkDigit,
-                    "Iban's check digit should contain only digits.");
+        final int invalidCharacterIndex = structure.indexOfInvalidCharacter(iban, offset + BBAN_INDEX);
+        if (invalidCharacterIndex >= 0) {
+            return status(characterTypeViolation(
+                    structure.getEntryAt(invalidCharacterIndex).getCharacterType()),
+                    BBAN_INDEX + invalidCharacterIndex);
         }
+
+        return VALID;
     }
 
-    private static void validateBbanLength(final String iban,
-                                           final BbanStructure structure) {
-        final int expectedBbanLength = structure.getBbanLength();
-        final String bban = getBban(iban);
-        final int bbanLength = bban.length();
-        if (expectedBbanLength != bbanLength) {
-            throw new IbanFormatException(BBAN_LENGTH,
-                    bbanLength, expectedBbanLength,
-                    String.format("[%s] length is %d, expected BBAN length is: %d",
-                            bban, bbanLength, expectedBbanLength));
+    /**
+     * Returns the status of an iban with valid structure and the specified
+     * result of {@link Mod97#mod(CharSequence, int, int, boolean)}.
+     */
+    private static int modStatus(final int mod, final int length) {
+        if (mod < 0) {
+            final int index = -1 - mod;
+            final int bbanLength = length - BBAN_INDEX;
+            return status(IBAN_VALID_CHARACTERS, index < bbanLength
+                    ? BBAN_INDEX + index : index - bbanLength);
+        }
+        if (mod != 1) {
+            return status(CHECK_DIGIT_VALID, CHECK_DIGIT_INDEX);
         }
+        return VALID;
     }
 
-    private static void validateBbanEntries(final String iban,
-                                            final BbanStructure structure) {
-        final String bban = getBban(iban);
-        int bbanEntryOffset = 0;
-        for(final BbanStructureEntry entry : structure.getEntries()) {
-            final int entryLength = entry.getLength();
-            final String entryValue = bban.substring(bbanEntryOffset,
-                    bbanEntryOffset + entryLength);
-
-            bbanEntryOffset = bbanEntryOffset + entryLength;
+    private static void checkInto(final CharSequence iban, final int index,
+                              final IbanBatchResult result) {
+        int status;
+        try {
+            status = checkStatus(iban, 0, iban == null ? 0 : iban.length());
+        } catch (RuntimeException e) {
+            status = status(UNKNOWN, 0);
+        }
+        if (status == VALID) {
+            result.setValid(index);
+        } else {
+            result.setViolation(index, violationOf(status));
+        }
+    }
 
-            // validate character type
-            validateBbanEntryCharacterType(entry, entryValue);
+    /**
+     * Checks the iban and counts the status into statistics.
+     *
+     * @return the status, see {@link #checkStatus(CharSequence, int, int)}.
+     */
+    static int countInto(final CharSequence iban, final IbanStatistics statistics) {
+        final int length = iban == null ? 0 : iban.length();
+        int status;
+        try {
+            status = checkStatus(iban, 0, length);
+        } catch (RuntimeException e) {
+            status = status(UNKNOWN, 0);
         }
+        statistics.add(status, length < COUNTRY_CODE_LENGTH
+                ? null : CountryCode.fromAlpha2(iban.charAt(0), iban.charAt(1)));
+        return status;
+    }
+
+    /**
+     * Returns the violation of a status returned by {@link #checkStatus(CharSequence, int, int)}.
+     */
+    static IbanFormatViolation violationOf(final int status) {
+        return status == VALID ? null : VIOLATIONS[status & 0xFF];
     }
 
-    private static void validateBbanEntryCharacterType(final BbanStructureEntry entry,
-                                                       final String entryValue) {
-        switch (entry.getCharacterType()) {
+    /**
+     * Returns the index within iban of the character which caused the violation
+     * of a status returned by {@link #checkStatus(CharSequence, int, int)}. For length
+     * violations it is the index where a character is missing or redundant.
+     */
+    static int positionOf(final int status) {
+        return status == VALID ? -1 : status >>> 8;
+    }
+
+    private static int status(final IbanFormatViolation violation, final int position) {
+        return position << 8 | violation.ordinal();
+    }
+
+    private static IbanFormatViolation characterTypeViolation(
+            final BbanStructureEntry.EntryCharacterType characterType) {
+        switch (characterType) {
             case a:
-                for(char ch: entryValue.toCharArray()) {
-                    if(!Character.isUpperCase(ch)) {
-                        throw new IbanFormatException(BBAN_ONLY_UPPER_CASE_LETTERS,
-                                entry.getEntryType(), entryValue, ch,
-                                String.format(ASSERT_UPPER_LETTERS, entryValue));
-                    }
-                }
-                break;
-            case c:
-                for(char ch: entryValue.toCharArray()) {
-                    if(!Character.isLetterOrDigit(ch)) {
-                        throw new IbanFormatException(BBAN_ONLY_DIGITS_OR_LETTERS,
-                                entry.getEntryType(), entryValue, ch,
-                                String.format(ASSERT_DIGITS_AND_LETTERS, entryValue));
-                    }
-                }
-                break;
+                return BBAN_ONLY_UPPER_CASE_LETTERS;
             case n:
-                for(char ch: entryValue.toCharArray()) {
-                    if(!Character.isDigit(ch)) {
-                        throw new IbanFormatException(BBAN_ONLY_DIGITS,
-                                entry.getEntryType(), entryValue, ch,
-                                String.format(ASSERT_DIGITS, entryValue));
-                    }
-                }
-                break;
+                return BBAN_ONLY_DIGITS;
+            default:
+                return BBAN_ONLY_DIGITS_OR_LETTERS;
         }
     }
 
     /**
-     * Calculates
-     * <a href="http://en.wikipedia.org/wiki/ISO_13616#Modulo_operation_on_IBAN">Iban Modulo</a>.
-     *
-     * @param iban String value
-     * @return modulo 97
+     * Creates the exception which {@link #validate(String)} throws for the
+     * violation status returned by {@link #checkStatus(CharSequence, int, int)}.
      */
-    private static int calculateMod(final String iban) {
-        final String reformattedIban = getBban(iban) + getCountryCodeAndCheckDigit(iban);
-        long total = 0;
-        for (int i = 0; i < reformattedIban.length(); i++) {
-            final int numericValue = Character.getNumericValue(reformattedIban.charAt(i));
-            if (numericValue < 0 || numericValue > 35) {
-                throw new IbanFormatException(IBAN_VALID_CHARACTERS, null, null,
-                        reformattedIban.charAt(i),
-                        String.format("Invalid Character[%d] = '%d'", i, numericValue));
+    static Iban4jException newException(final int status, final CharSequence iban,
+                                        final int offset, final int length) {
+        final IbanFormatViolation violation = violationOf(status);
+        final int position = positionOf(status);
+        switch (violation) {
+            case IBAN_NOT_NULL:
+                return new IbanFormatException(IBAN_NOT_NULL,
+                        "Null can't be a valid Iban.");
+            case IBAN_NOT_EMPTY:
+                return new IbanFormatException(IBAN_NOT_EMPTY,
+                        "Empty string can't be a valid Iban.");
+            case COUNTRY_CODE_TWO_LETTERS:
+                return new IbanFormatException(COUNTRY_CODE_TWO_LETTERS,
+                        substring(iban, offset, 0, length),
+                        "Iban must contain 2 char country code.");
+            case COUNTRY_CODE_UPPER_CASE_LETTERS:
+                return new IbanFormatException(COUNTRY_CODE_UPPER_CASE_LETTERS,
+                        substring(iban, offset, COUNTRY_CODE_INDEX, CHECK_DIGIT_INDEX),
+                        "Iban country code must contain upper case letters.");
+            case COUNTRY_CODE_EXISTS:
+                return new IbanFormatException(COUNTRY_CODE_EXISTS,
+                        substring(iban, offset, COUNTRY_CODE_INDEX, CHECK_DIGIT_INDEX),
+                        "Iban contains non existing country code.");
+            case COUNTRY_CODE_SUPPORTED:
+                return new UnsupportedCountryException(
+                        substring(iban, offset, COUNTRY_CODE_INDEX, CHECK_DIGIT_INDEX),
+                        "Country code is not supported.");
+            case CHECK_DIGIT_TWO_DIGITS:
+                return new IbanFormatException(CHECK_DIGIT_TWO_DIGITS,
+                        substring(iban, offset, CHECK_DIGIT_INDEX, length),
+                        "Iban must contain 2 digit check digit.");
+            case CHECK_DIGIT_ONLY_DIGITS:
+                return new IbanFormatException(CHECK_DIGIT_ONLY_DIGITS,
+                        substring(iban, offset, CHECK_DIGIT_INDEX, BBAN_INDEX),
+                        "Iban's check digit should contain only digits.");
+            case BBAN_LENGTH: {
+                final String bban = substring(iban, offset, BBAN_INDEX, length);
+                final int expectedBbanLength = getBbanStructure(iban, offset).getBbanLength();
+                return new IbanFormatException(BBAN_LENGTH,
+                        bban.length(), expectedBbanLength,
+                        "[%s] length is %d, expected BBAN length is: %d",
+                        new Object[] {bban, bban.length(), expectedBbanLength});
             }
-            total = (numericValue > 9 ? total * 100 : total * 10) + numericValue;
-
-            if (total > MAX) {
-                total = (total % MOD);
+            case BBAN_ONLY_UPPER_CASE_LETTERS:
+            case BBAN_ONLY_DIGITS_OR_LETTERS:
+            case BBAN_ONLY_DIGITS: {
+                int entryStart = BBAN_INDEX;
+                for (final BbanStructureEntry entry : getBbanStructure(iban, offset).getEntries()) {
+                    final int entryEnd = entryStart + entry.getLength();
+                    if (position < entryEnd) {
+                        final String entryValue = substring(iban, offset, entryStart, entryEnd);
+                        final String message = violation == BBAN_ONLY_UPPER_CASE_LETTERS
+                                ? ASSERT_UPPER_LETTERS
+                                : violation == BBAN_ONLY_DIGITS_OR_LETTERS
+                                ? ASSERT_DIGITS_AND_LETTERS : ASSERT_DIGITS;
+                        return new IbanFormatException(violation,
+                                entry.getEntryType(), entryValue, iban.charAt(offset + position),
+                                message, new Object[] {entryValue});
+                    }
+                    entryStart = entryEnd;
+                }
+                return new IbanFormatException(violation, "Invalid bban character.");
             }
-
+            case IBAN_VALID_CHARACTERS: {
+                final int bbanLength = length - BBAN_INDEX;
+                final int index = position >= BBAN_INDEX
+                        ? position - BBAN_INDEX : bbanLength + position;
+                return Mod97.invalidCharacter(iban.charAt(offset + position), index);
+            }
+            case CHECK_DIGIT_VALID: {
+                final String ibanValue = substring(iban, offset, 0, length);
+                final String checkDigit = getCheckDigit(ibanValue);
+                final String expectedCheckDigit = calculateCheckDigit(ibanValue);
+                return new InvalidCheckDigitException(
+                        checkDigit, expectedCheckDigit,
+                        "[%s] has invalid check digit: %s, expected check digit is: %s",
+                        new Object[] {ibanValue, checkDigit, expectedCheckDigit});
+            }
+            default:
+                return new IbanFormatException(violation, "Invalid Iban.");
         }
-        return (int) (total % MOD);
+    }
+
+    private static String substring(final CharSequence iban, final int offset,
+                                    final int start, final int end) {
+        return iban.subSequence(offset + start, offset + end).toString();
+    }
+
+    private static boolean isUpperCaseAsciiLetter(final char ch) {
+        return ch >= 'A' && ch <= 'Z';
+    }
+
+    static BbanStructure getBbanStructure(final CharSequence iban, final int offset) {
+        return BbanStructure.forAlpha2(
+                iban.charAt(offset + COUNTRY_CODE_INDEX),
+                iban.charAt(offset + COUNTRY_CODE_INDEX + 1));
     }
 
     private static BbanStructure getBbanStructure(final String iban) {
-        final String countryCode = getCountryCode(iban);
-        return getBbanStructure(CountryCode.getByCode(countryCode));
+        return getBbanStructure(CountryCode.fromAlpha2(
+                iban.charAt(COUNTRY_CODE_INDEX), iban.charAt(COUNTRY_CODE_INDEX + 1)));
     }
 
     private static BbanStructure getBbanStructure(final CountryCode countryCode) {
@@ -470,20 +1038,22 @@ public final class IbanUtil {
     }
 
     private static String extractBbanEntry(final String iban, final BbanEntryType entryType) {
-        final String bban = getBban(iban);
-        final BbanStructure structure = getBbanStructure(iban);
-        int bbanEntryOffset = 0;
-        for(final BbanStructureEntry entry : structure.getEntries()) {
-            final int entryLength = entry.getLength();
-            final String entryValue = bban.substring(bbanEntryOffset,
-                    bbanEntryOffset + entryLength);
-
-            bbanEntryOffset = bbanEntryOffset + entryLength;
-            if(entry.getEntryType() == entryType) {
-                return entryValue;
-            }
+        return extractBbanEntry(iban, getBbanStructure(iban), entryType);
+    }
+
+    /**
+     * Returns the entry of an iban with the specified structure.
+     *
+     * @return entry String or null if the structure doesn't have such entry.
+     */
+    static String extractBbanEntry(final String iban, final BbanStructure structure,
+                                   final BbanEntryType entryType) {
+        final int entryOffset = structure.getEntryOffset(entryType);
+        if (entryOffset < 0) {
+            return null;
         }
-        return null;
+        final int entryIndex = BBAN_INDEX + entryOffset;
+        return iban.substring(entryIndex, entryIndex + structure.getEntryLength(entryType));
     }
 
 }
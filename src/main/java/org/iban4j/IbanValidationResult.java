@@ -0,0 +1,134 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.iban4j.IbanFormatException.IbanFormatViolation;
+
+import java.nio.CharBuffer;
+
+/**
+ * Result of an iban check which doesn't throw.
+ *
+ * Holds the violation together with the offset and character which caused it.
+ * The message is only formatted when {@link #getMessage()} is called. An instance
+ * can be reused for several checks, it always describes the last one.
+ *
+ * The characters of an invalid iban are copied into a buffer owned by the result,
+ * which is reused by later checks. The checked sequence can therefore be changed
+ * or reused right after the check without affecting the result.
+ *
+ * @see IbanUtil#check(CharSequence)
+ * @see Iban#tryValueOf(String, IbanValidationResult)
+ */
+public final class IbanValidationResult {
+
+    private int status = IbanUtil.VALID;
+    private boolean nullIban;
+    private char[] chars = new char[0];
+    private int length;
+
+    /**
+     * Creates a result which can be reused for several checks.
+     */
+    public IbanValidationResult() {
+    }
+
+    void set(final int status, final CharSequence iban, final int offset, final int length) {
+        this.status = status;
+        this.nullIban = iban == null;
+        this.length = 0;
+        if (status == IbanUtil.VALID || iban == null) {
+            return;
+        }
+        if (chars.length < length) {
+            chars = new char[length];
+        }
+        for (int i = 0; i < length; i++) {
+            chars[i] = iban.charAt(offset + i);
+        }
+        this.length = length;
+    }
+
+    /**
+     * @return true if the checked iban is valid, false otherwise.
+     */
+    public boolean isValid() {
+        return status == IbanUtil.VALID;
+    }
+
+    /**
+     * @return the violation or null if the checked iban is valid.
+     */
+    public IbanFormatViolation getViolation() {
+        return IbanUtil.violationOf(status);
+    }
+
+    /**
+     * Returns the index within iban of the character which caused the violation.
+     * For length violations it is the index where a character is missing or redundant.
+     *
+     * @return the offset or -1 if the checked iban is valid.
+     */
+    public int getOffset() {
+        return IbanUtil.positionOf(status);
+    }
+
+    /**
+     * @return the character which caused the violation, or '\u0000' if the
+     *         violation is not caused by a single character.
+     */
+    public char getInvalidCharacter() {
+        final IbanFormatViolation violation = getViolation();
+        if (violation == null) {
+            return 0;
+        }
+        switch (violation) {
+            case COUNTRY_CODE_UPPER_CASE_LETTERS:
+            case CHECK_DIGIT_ONLY_DIGITS:
+            case BBAN_ONLY_DIGITS:
+            case BBAN_ONLY_UPPER_CASE_LETTERS:
+            case BBAN_ONLY_DIGITS_OR_LETTERS:
+            case IBAN_VALID_CHARACTERS:
+                return chars[getOffset()];
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Formats the message describing the violation.
+     *
+     * @return the message or null if the checked iban is valid.
+     */
+    public String getMessage() {
+        return isValid() ? null : toException().getMessage();
+    }
+
+    /**
+     * Creates the exception which iban validation throws for this violation.
+     *
+     * @return the exception or null if the checked iban is valid.
+     */
+    public Iban4jException toException() {
+        return isValid() ? null : IbanUtil.newException(status,
+                nullIban ? null : CharBuffer.wrap(chars, 0, length), 0, length);
+    }
+
+    @Override
+    public String toString() {
+        return isValid() ? "valid" : getViolation() + " at " + getOffset();
+    }
+}
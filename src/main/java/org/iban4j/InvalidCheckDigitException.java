@@ -78,6 +78,23 @@ public class InvalidCheckDigitException extends Iban4jException {
         super(t);
     }
 
+    /**
+     * Constructs a <code>InvalidCheckDigitException</code> with the
+     * specified actual, expected and detail message which is
+     * formatted on first access.
+     *
+     * @param actual the actual check digit.
+     * @param expected the expected check digit.
+     * @param messageFormat the format string of the detail message.
+     * @param messageArguments the arguments of the format string.
+     */
+    InvalidCheckDigitException(final String actual, final String expected,
+                               final String messageFormat, final Object[] messageArguments) {
+        super(messageFormat, messageArguments);
+        this.actual = actual;
+        this.expected = expected;
+    }
+
     public String getActual() {
         return actual;
     }
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.iban4j.bban.BbanEntryType;
+import org.iban4j.bban.BbanStructure;
+import org.iban4j.bban.BbanStructureEntry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decides which iban characters are hidden when an iban is masked.
+ *
+ * Country code and check digit are always visible. Of the bban, the characters
+ * of the visible entries of the country's {@link BbanStructure} and the last
+ * characters are kept, every other character is replaced by the mask character.
+ * Masked ibans are written in print format unless grouping is disabled.
+ *
+ * Visible positions are computed once per country when the policy is created,
+ * masking itself only tests bits. Instances are immutable.
+ */
+public final class MaskPolicy {
+
+    private static final int MAX_IBAN_LENGTH = 64;
+    private static final long HEADER_VISIBILITY = (1L << IbanUtil.BBAN_INDEX) - 1;
+
+    /**
+     * Keeps the last four characters, masks with '*' and groups like print format,
+     * as {@link IbanFormat#Masked} does.
+     */
+    public static final MaskPolicy DEFAULT = new MaskPolicy(
+            EnumSet.noneOf(BbanEntryType.class), 4, '*', true);
+
+    private final Set<BbanEntryType> visibleEntries;
+    private final int visibleSuffixLength;
+    private final char maskCharacter;
+    private final boolean grouped;
+    private final long[] visibility;
+
+    private MaskPolicy(final Set<BbanEntryType> visibleEntries, final int visibleSuffixLength,
+                       final char maskCharacter, final boolean grouped) {
+        this.visibleEntries = Collections.unmodifiableSet(visibleEntries);
+        this.visibleSuffixLength = visibleSuffixLength;
+        this.maskCharacter = maskCharacter;
+        this.grouped = grouped;
+        final CountryCode[] countryCodes = CountryCode.values();
+        this.visibility = new long[countryCodes.length];
+        for (final CountryCode countryCode : countryCodes) {
+            final BbanStructure structure = BbanStructure.forCountry(countryCode);
+            if (structure != null) {
+                visibility[countryCode.ordinal()] = visibility(structure);
+            }
+        }
+    }
+
+    /**
+     * Returns the policy which keeps the last characters of the bban.
+     *
+     * @param count the number of visible characters at the end of the bban.
+     * @return the policy.
+     */
+    public static MaskPolicy keepLast(final int count) {
+        return DEFAULT.withVisibleSuffixLength(count);
+    }
+
+    /**
+     * Returns the policy which keeps the entries of the bban, e.g. the bank code,
+     * and hides all other bban characters.
+     *
+     * @param entryTypes the visible entries.
+     * @return the policy.
+     */
+    public static MaskPolicy keepEntries(final BbanEntryType... entryTypes) {
+        return DEFAULT.withVisibleSuffixLength(0).withVisibleEntries(entryTypes);
+    }
+
+    /**
+     * @param entryTypes the visible entries.
+     * @return a copy of this policy keeping the specified entries.
+     */
+    public MaskPolicy withVisibleEntries(final BbanEntryType... entryTypes) {
+        final Set<BbanEntryType> entries = EnumSet.noneOf(BbanEntryType.class);
+        entries.addAll(Arrays.asList(entryTypes));
+        return new MaskPolicy(entries, visibleSuffixLength, maskCharacter, grouped);
+    }
+
+    /**
+     * @param count the number of visible characters at the end of the bban.
+     * @return a copy of this policy keeping the last characters.
+     */
+    public MaskPolicy withVisibleSuffixLength(final int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Visible suffix length must not be negative: " + count);
+        }
+        return new MaskPolicy(copyOfVisibleEntries(), count, maskCharacter, grouped);
+    }
+
+    /**
+     * @param character the character replacing hidden characters.
+     * @return a copy of this policy masking with the character.
+     */
+    public MaskPolicy withMaskCharacter(final char character) {
+        return new MaskPolicy(copyOfVisibleEntries(), visibleSuffixLength, character, grouped);
+    }
+
+    /**
+     * @param grouping whether masked ibans are grouped like print format.
+     * @return a copy of this policy with the grouping.
+     */
+    public MaskPolicy withGrouping(final boolean grouping) {
+        return new MaskPolicy(copyOfVisibleEntries(), visibleSuffixLength, maskCharacter, grouping);
+    }
+
+    /**
+     * @return the bban entries which are not masked.
+     */
+    public Set<BbanEntryType> getVisibleEntries() {
+        return visibleEntries;
+    }
+
+    /**
+     * @return the number of visible characters at the end of the bban.
+     */
+    public int getVisibleSuffixLength() {
+        return visibleSuffixLength;
+    }
+
+    /**
+     * @return the character replacing hidden characters.
+     */
+    public char getMaskCharacter() {
+        return maskCharacter;
+    }
+
+    /**
+     * @return true if masked ibans are grouped like print format.
+     */
+    public boolean isGrouped() {
+        return grouped;
+    }
+
+    /**
+     * Returns the visible positions of an iban of the country, bit i stands for
+     * the iban character at index i.
+     */
+    long visibility(final CountryCode countryCode) {
+        return visibility[countryCode.ordinal()];
+    }
+
+    private long visibility(final BbanStructure structure) {
+        long visible = HEADER_VISIBILITY;
+        final List<BbanStructureEntry> entries = structure.getEntries();
+        int index = IbanUtil.BBAN_INDEX;
+        for (int i = 0; i < entries.size(); i++) {
+            final BbanStructureEntry entry = entries.get(i);
+            if (visibleEntries.contains(entry.getEntryType())) {
+                visible |= bits(index, index + entry.getLength());
+            }
+            index += entry.getLength();
+        }
+        final int suffixStart = Math.max(IbanUtil.BBAN_INDEX, index - visibleSuffixLength);
+        return visible | bits(suffixStart, index);
+    }
+
+    private static long bits(final int from, final int to) {
+        long bits = 0;
+        for (int i = from; i < to && i < MAX_IBAN_LENGTH; i++) {
+            bits |= 1L << i;
+        }
+        return bits;
+    }
+
+    private Set<BbanEntryType> copyOfVisibleEntries() {
+        final Set<BbanEntryType> entries = EnumSet.noneOf(BbanEntryType.class);
+        entries.addAll(visibleEntries);
+        return entries;
+    }
+
+    @Override
+    public String toString() {
+        return "MaskPolicy{visibleEntries=" + visibleEntries + ", visibleSuffixLength="
+                + visibleSuffixLength + ", maskCharacter=" + maskCharacter + ", grouped=" + grouped + "}";
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import static org.iban4j.IbanFormatException.IbanFormatViolation.CHECK_DIGIT_TWO_DIGITS;
+import static org.iban4j.IbanFormatException.IbanFormatViolation.IBAN_VALID_CHARACTERS;
+
+/**
+ * Iban
+ * <a href="http://en.wikipedia.org/wiki/ISO_13616#Modulo_operation_on_IBAN">Modulo 97</a>
+ * calculation.
+ *
+ * The iban is not rearranged into a new string: the bban is walked in place
+ * followed by the country code and check digit. Characters are mapped to their
+ * numeric values through an ascii lookup table and folded into a long accumulator,
+ * which is reduced only when it is about to overflow.
+ */
+public final class Mod97 {
+
+    private static final int MOD = 97;
+    private static final long MAX = Long.MAX_VALUE / 100 - 1;
+
+    private static final int CHECK_DIGIT_INDEX = 2;
+    private static final int BBAN_INDEX = 4;
+
+    private static final int ASCII_LIMIT = 128;
+    private static final byte[] NUMERIC_VALUES = new byte[ASCII_LIMIT];
+
+    static {
+        for (int i = 0; i < ASCII_LIMIT; i++) {
+            NUMERIC_VALUES[i] = -1;
+        }
+        for (char ch = '0'; ch <= '9'; ch++) {
+            NUMERIC_VALUES[ch] = (byte) (ch - '0');
+        }
+        for (char ch = 'A'; ch <= 'Z'; ch++) {
+            NUMERIC_VALUES[ch] = (byte) (ch - 'A' + 10);
+            NUMERIC_VALUES[Character.toLowerCase(ch)] = (byte) (ch - 'A' + 10);
+        }
+    }
+
+    private Mod97() {
+    }
+
+    /**
+     * Calculates modulo 97 of the iban stored in the specified region.
+     *
+     * @param iban the character sequence holding the iban.
+     * @param offset the index of the first iban character.
+     * @param length the number of iban characters.
+     * @return modulo 97, which is 1 for an iban with valid check digit.
+     * @throws IbanFormatException if iban contains invalid character.
+     */
+    public static int calculate(final CharSequence iban, final int offset, final int length)
+            throws IbanFormatException {
+        checkRegion(iban.length(), offset, length);
+        return valueOrThrow(mod(iban, offset, length, false), iban, offset, length);
+    }
+
+    /**
+     * Calculates modulo 97 of the iban stored in the specified region.
+     *
+     * @param iban the char array holding the iban.
+     * @param offset the index of the first iban character.
+     * @param length the number of iban characters.
+     * @return modulo 97, which is 1 for an iban with valid check digit.
+     * @throws IbanFormatException if iban contains invalid character.
+     */
+    public static int calculate(final char[] iban, final int offset, final int length)
+            throws IbanFormatException {
+        checkRegion(iban.length, offset, length);
+        return valueOrThrow(mod(iban, offset, length, false),
+                new String(iban, offset, length), 0, length);
+    }
+
+    /**
+     * Calculates modulo 97 of the ascii encoded iban stored in the specified region.
+     *
+     * @param iban the byte array holding the iban.
+     * @param offset the index of the first iban byte.
+     * @param length the number of iban bytes.
+     * @return modulo 97, which is 1 for an iban with valid check digit.
+     * @throws IbanFormatException if iban contains invalid character.
+     */
+    public static int calculate(final byte[] iban, final int offset, final int length)
+            throws IbanFormatException {
+        checkRegion(iban.length, offset, length);
+        return valueOrThrow(mod(iban, offset, length, false),
+                latin1String(iban, offset, length), 0, length);
+    }
+
+    /**
+     * Calculates the check digit of the iban stored in the specified region.
+     * The check digit which is present in the iban is ignored.
+     *
+     * @param iban the character sequence holding the iban.
+     * @param offset the index of the first iban character.
+     * @param length the number of iban characters.
+     * @return check digit in range from 2 to 98.
+     * @throws IbanFormatException if iban contains invalid character.
+     */
+    public static int calculateCheckDigit(final CharSequence iban, final int offset, final int length)
+            throws IbanFormatException {
+        checkRegion(iban.length(), offset, length);
+        return 98 - valueOrThrow(mod(iban, offset, length, true), iban, offset, length);
+    }
+
+    /**
+     * Calculates the check digit of the iban stored in the specified region.
+     * The check digit which is present in the iban is ignored.
+     *
+     * @param iban the char array holding the iban.
+     * @param offset the index of the first iban character.
+     * @param length the number of iban characters.
+     * @return check digit in range from 2 to 98.
+     * @throws IbanFormatException if iban contains invalid character.
+     */
+    public static int calculateCheckDigit(final char[] iban, final int offset, final int length)
+            throws IbanFormatException {
+        checkRegion(iban.length, offset, length);
+        return 98 - valueOrThrow(mod(iban, offset, length, true),
+                new String(iban, offset, length), 0, length);
+    }
+
+    /**
+     * Calculates the check digit of the ascii encoded iban stored in the specified region.
+     * The check digit which is present in the iban is ignored.
+     *
+     * @param iban the byte array holding the iban.
+     * @param offset the index of the first iban byte.
+     * @param length the number of iban bytes.
+     * @return check digit in range from 2 to 98.
+     * @throws IbanFormatException if iban contains invalid character.
+     */
+    public static int calculateCheckDigit(final byte[] iban, final int offset, final int length)
+            throws IbanFormatException {
+        checkRegion(iban.length, offset, length);
+        return 98 - valueOrThrow(mod(iban, offset, length, true),
+                latin1String(iban, offset, length), 0, length);
+    }
+
+    /**
+     * Calculates modulo 97 without throwing.
+     *
+     * @param zeroCheckDigit whether the check digit should be taken as "00".
+     * @return modulo 97, or a negative value {@code -1 - index} where index is
+     *         the position of the first invalid character in the rearranged iban.
+     */
+    static int mod(final CharSequence iban, final int offset, final int length,
+                   final boolean zeroCheckDigit) {
+        final int bbanLength = length - BBAN_INDEX;
+        final int bbanStart = offset + BBAN_INDEX;
+        long total = 0;
+        for (int i = 0; i < bbanLength; i++) {
+            final int value = numericValue(iban.charAt(bbanStart + i));
+            if (value < 0) {
+                return -1 - i;
+            }
+            total = (value > 9 ? total * 100 : total * 10) + value;
+            if (total > MAX) {
+                total = total % MOD;
+            }
+        }
+        final int end = zeroCheckDigit ? CHECK_DIGIT_INDEX : BBAN_INDEX;
+        for (int i = 0; i < end; i++) {
+            final int value = numericValue(iban.charAt(offset + i));
+            if (value < 0) {
+                return -1 - (bbanLength + i);
+            }
+            total = (value > 9 ? total * 100 : total * 10) + value;
+            if (total > MAX) {
+                total = total % MOD;
+            }
+        }
+        if (zeroCheckDigit) {
+            total = total * 100;
+        }
+        return (int) (total % MOD);
+    }
+
+    static int mod(final char[] iban, final int offset, final int length,
+                   final boolean zeroCheckDigit) {
+        final int bbanLength = length - BBAN_INDEX;
+        final int bbanStart = offset + BBAN_INDEX;
+        long total = 0;
+        for (int i = 0; i < bbanLength; i++) {
+            final int value = numericValue(iban[bbanStart + i]);
+            if (value < 0) {
+                return -1 - i;
+            }
+            total = (value > 9 ? total * 100 : total * 10) + value;
+            if (total > MAX) {
+                total = total % MOD;
+            }
+        }
+        final int end = zeroCheckDigit ? CHECK_DIGIT_INDEX : BBAN_INDEX;
+        for (int i = 0; i < end; i++) {
+            final int value = numericValue(iban[offset + i]);
+            if (value < 0) {
+                return -1 - (bbanLength + i);
+            }
+            total = (value > 9 ? total * 100 : total * 10) + value;
+            if (total > MAX) {
+                total = total % MOD;
+            }
+        }
+        if (zeroCheckDigit) {
+            total = total * 100;
+        }
+        return (int) (total % MOD);
+    }
+
+    static int mod(final byte[] iban, final int offset, final int length,
+                   final boolean zeroCheckDigit) {
+        final int bbanLength = length - BBAN_INDEX;
+        final int bbanStart = offset + BBAN_INDEX;
+        long total = 0;
+        for (int i = 0; i < bbanLength; i++) {
+            final int value = asciiValue(iban[bbanStart + i]);
+            if (value < 0) {
+                return -1 - i;
+            }
+            total = (value > 9 ? total * 100 : total * 10) + value;
+            if (total > MAX) {
+                total = total % MOD;
+            }
+        }
+        final int end = zeroCheckDigit ? CHECK_DIGIT_INDEX : BBAN_INDEX;
+        for (int i = 0; i < end; i++) {
+            final int value = asciiValue(iban[offset + i]);
+            if (value < 0) {
+                return -1 - (bbanLength + i);
+            }
+            total = (value > 9 ? total * 100 : total * 10) + value;
+            if (total > MAX) {
+                total = total % MOD;
+            }
+        }
+        if (zeroCheckDigit) {
+            total = total * 100;
+        }
+        return (int) (total % MOD);
+    }
+
+    /**
+     * Appends a character value to a modulo 97 accumulator, for callers which
+     * walk the rearranged iban themselves. The accumulator starts with 0,
+     * {@link #remainder(long)} gives its modulo 97.
+     *
+     * @param value the value returned by {@link #numericValue(char)}.
+     */
+    static long accumulate(final long total, final int value) {
+        final long next = (value > 9 ? total * 100 : total * 10) + value;
+        return next > MAX ? next % MOD : next;
+    }
+
+    static int remainder(final long total) {
+        return (int) (total % MOD);
+    }
+
+    /**
+     * Returns the value of the character in modulo 97 calculation.
+     * Non ascii characters fall back to their unicode numeric value.
+     *
+     * @return value in range from 0 to 35, or -1 for invalid character.
+     */
+    static int numericValue(final char ch) {
+        if (ch < ASCII_LIMIT) {
+            return NUMERIC_VALUES[ch];
+        }
+        final int value = Character.getNumericValue(ch);
+        return value > 35 ? -1 : value;
+    }
+
+    private static int asciiValue(final byte b) {
+        return b < 0 ? -1 : NUMERIC_VALUES[b];
+    }
+
+    private static int valueOrThrow(final int result, final CharSequence iban,
+                                    final int offset, final int length) {
+        if (result >= 0) {
+            return result;
+        }
+        final int index = -1 - result;
+        final int bbanLength = length - BBAN_INDEX;
+        final char ch = index < bbanLength
+                ? iban.charAt(offset + BBAN_INDEX + index)
+                : iban.charAt(offset + index - bbanLength);
+        throw invalidCharacter(ch, index);
+    }
+
+    /**
+     * Creates the exception for an invalid character.
+     *
+     * @param ch the invalid character.
+     * @param index the position of the character in the rearranged iban.
+     */
+    static IbanFormatException invalidCharacter(final char ch, final int index) {
+        return new IbanFormatException(IBAN_VALID_CHARACTERS, null, null, ch,
+                "Invalid Character[%d] = '%d'",
+                new Object[] {index, Character.getNumericValue(ch)});
+    }
+
+    private static void checkRegion(final int size, final int offset, final int length) {
+        if (offset < 0 || length < 0 || offset > size - length) {
+            throw new IndexOutOfBoundsException(
+                    String.format("offset: %d, length: %d, size: %d", offset, length, size));
+        }
+        if (length < BBAN_INDEX) {
+            throw new IbanFormatException(CHECK_DIGIT_TWO_DIGITS,
+                    "Iban must contain 2 digit check digit.");
+        }
+    }
+
+    private static String latin1String(final byte[] bytes, final int offset, final int length) {
+        final char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) (bytes[offset + i] & 0xFF);
+        }
+        return new String(chars);
+    }
+}
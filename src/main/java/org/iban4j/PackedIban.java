@@ -0,0 +1,277 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.iban4j.bban.BbanStructure;
+
+/**
+ * Iban packed into three longs.
+ *
+ * The first word holds the country code ordinal plus one in its highest 8 bits,
+ * the check digit in the next 7 bits and the first 8 bban characters. The second
+ * and the third word hold 10 bban characters each. Every bban character takes
+ * 6 bits: digits are stored as 0 to 9 and letters as 10 to 35, the first character
+ * of a word in its highest bits. The bban length is given by the country, so
+ * unused characters are simply 0.
+ *
+ * Characters are packed by their modulo 97 value, so lower case letters and
+ * non ascii digits, which validation accepts in some bban entries, are packed
+ * like their upper case ascii form. A packed iban always unpacks in that form.
+ *
+ * The string value is not kept, {@link #toString()} decodes it when called.
+ */
+public final class PackedIban {
+
+    /**
+     * Number of words of a packed iban.
+     */
+    static final int WORDS = 3;
+
+    private static final int MAX_BBAN_LENGTH = 28;
+    private static final int FIRST_WORD_CHARACTERS = 8;
+    private static final int WORD_CHARACTERS = 10;
+    private static final int CHARACTER_BITS = 6;
+    private static final int CHARACTER_MASK = (1 << CHARACTER_BITS) - 1;
+    private static final int COUNTRY_SHIFT = 56;
+    private static final int CHECK_DIGIT_SHIFT = 49;
+    private static final int CHECK_DIGIT_MASK = 0x7F;
+
+    private static final CountryCode[] COUNTRY_CODES = CountryCode.values();
+
+    private final long first;
+    private final long second;
+    private final long third;
+
+    private PackedIban(final long first, final long second, final long third) {
+        this.first = first;
+        this.second = second;
+        this.third = third;
+    }
+
+    /**
+     * Packs the iban.
+     *
+     * @param iban the iban to be packed.
+     * @return packed iban holding the same value.
+     */
+    public static PackedIban valueOf(final Iban iban) {
+        final String value = iban.toString();
+        final int length = value.length();
+        return new PackedIban(word(value, 0, length, 0), word(value, 0, length, 1),
+                word(value, 0, length, 2));
+    }
+
+    /**
+     * Validates and packs the iban.
+     *
+     * @param iban the iban to be packed.
+     * @return packed iban holding the same value.
+     * @throws IbanFormatException if iban is invalid.
+     *         UnsupportedCountryException if iban's country is not supported.
+     *         InvalidCheckDigitException if iban has invalid check digit.
+     */
+    public static PackedIban valueOf(final CharSequence iban) throws IbanFormatException,
+            InvalidCheckDigitException, UnsupportedCountryException {
+        final int length = iban == null ? 0 : iban.length();
+        IbanUtil.validate(iban, 0, length);
+        return new PackedIban(word(iban, 0, length, 0), word(iban, 0, length, 1),
+                word(iban, 0, length, 2));
+    }
+
+    /**
+     * Returns the packed iban of the words returned by {@link #getWord(int)}.
+     *
+     * @throws IllegalArgumentException if the words don't hold a packed iban.
+     */
+    public static PackedIban fromWords(final long first, final long second, final long third) {
+        final int country = (int) (first >>> COUNTRY_SHIFT);
+        if (country == 0 || country > COUNTRY_CODES.length
+                || BbanStructure.forCountry(COUNTRY_CODES[country - 1]) == null) {
+            throw new IllegalArgumentException("Words don't hold a packed iban.");
+        }
+        return new PackedIban(first, second, third);
+    }
+
+    /**
+     * @param index the index of the word, from 0 to 2.
+     * @return the word of the packed iban.
+     */
+    public long getWord(final int index) {
+        switch (index) {
+            case 0:
+                return first;
+            case 1:
+                return second;
+            case 2:
+                return third;
+            default:
+                throw new IndexOutOfBoundsException("index: " + index);
+        }
+    }
+
+    /**
+     * @return country code of the iban.
+     */
+    public CountryCode getCountryCode() {
+        return COUNTRY_CODES[(int) (first >>> COUNTRY_SHIFT) - 1];
+    }
+
+    /**
+     * @return check digit of the iban.
+     */
+    public int getCheckDigit() {
+        return (int) (first >>> CHECK_DIGIT_SHIFT) & CHECK_DIGIT_MASK;
+    }
+
+    /**
+     * @return the unpacked iban.
+     */
+    public Iban toIban() {
+        return Iban.valueOf(toString());
+    }
+
+    /**
+     * Returns formatted version of the iban.
+     *
+     * @return A string representing formatted Iban for printing.
+     */
+    public String toFormattedString() {
+        return IbanUtil.toFormattedString(toString());
+    }
+
+    @Override
+    public String toString() {
+        final CountryCode countryCode = getCountryCode();
+        final int bbanLength = BbanStructure.forCountry(countryCode).getBbanLength();
+        final char[] chars = new char[IbanUtil.BBAN_INDEX + bbanLength];
+        final String alpha2 = countryCode.getAlpha2();
+        chars[0] = alpha2.charAt(0);
+        chars[1] = alpha2.charAt(1);
+        final int checkDigit = getCheckDigit();
+        chars[2] = (char) ('0' + checkDigit / 10);
+        chars[3] = (char) ('0' + checkDigit % 10);
+        for (int i = 0; i < bbanLength; i++) {
+            chars[IbanUtil.BBAN_INDEX + i] = character(i);
+        }
+        return new String(chars);
+    }
+
+    private char character(final int index) {
+        final int value;
+        if (index < FIRST_WORD_CHARACTERS) {
+            value = (int) (first >>> shift(index, FIRST_WORD_CHARACTERS)) & CHARACTER_MASK;
+        } else if (index < FIRST_WORD_CHARACTERS + WORD_CHARACTERS) {
+            value = (int) (second >>> shift(index - FIRST_WORD_CHARACTERS, WORD_CHARACTERS))
+                    & CHARACTER_MASK;
+        } else {
+            value = (int) (third >>> shift(index - FIRST_WORD_CHARACTERS - WORD_CHARACTERS,
+                    WORD_CHARACTERS)) & CHARACTER_MASK;
+        }
+        return (char) (value < 10 ? '0' + value : 'A' + value - 10);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj instanceof PackedIban) {
+            final PackedIban other = (PackedIban) obj;
+            return first == other.first && second == other.second && third == other.third;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash(first, second, third);
+    }
+
+    /**
+     * Hashes the words of a packed iban.
+     */
+    static int hash(final long first, final long second, final long third) {
+        long h = first * 0x9E3779B97F4A7C15L + second;
+        h = h * 0x9E3779B97F4A7C15L + third;
+        h ^= h >>> 29;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Packs one word of the iban stored in the specified region, which must be
+     * valid or at least {@link #isPackable(CharSequence, int, int) packable}.
+     *
+     * @param index the index of the word, from 0 to 2.
+     * @return the word.
+     */
+    static long word(final CharSequence iban, final int offset, final int length, final int index) {
+        if (index == 0) {
+            final CountryCode countryCode = CountryCode.fromAlpha2(iban.charAt(offset),
+                    iban.charAt(offset + 1));
+            final int checkDigit = value(iban.charAt(offset + 2)) * 10 + value(iban.charAt(offset + 3));
+            final long header = ((long) (countryCode.ordinal() + 1) << COUNTRY_SHIFT)
+                    | ((long) checkDigit << CHECK_DIGIT_SHIFT);
+            return header | characters(iban, offset + IbanUtil.BBAN_INDEX, length - IbanUtil.BBAN_INDEX,
+                    0, FIRST_WORD_CHARACTERS);
+        }
+        final int start = FIRST_WORD_CHARACTERS + (index - 1) * WORD_CHARACTERS;
+        return characters(iban, offset + IbanUtil.BBAN_INDEX, length - IbanUtil.BBAN_INDEX,
+                start, WORD_CHARACTERS);
+    }
+
+    private static long characters(final CharSequence iban, final int bbanOffset, final int bbanLength,
+                                   final int start, final int count) {
+        long word = 0;
+        final int end = Math.min(bbanLength, Math.min(start + count, MAX_BBAN_LENGTH));
+        for (int i = start; i < end; i++) {
+            word |= (long) value(iban.charAt(bbanOffset + i)) << shift(i - start, count);
+        }
+        return word;
+    }
+
+    private static int shift(final int index, final int count) {
+        return (count - 1 - index) * CHARACTER_BITS;
+    }
+
+    private static int value(final char ch) {
+        return Mod97.numericValue(ch);
+    }
+
+    /**
+     * Tests whether the specified region can be packed: it holds a supported
+     * country code, two check digits and a bban of letters and digits with the
+     * country's bban length. The check digit itself is not verified.
+     */
+    static boolean isPackable(final CharSequence iban, final int offset, final int length) {
+        if (length < IbanUtil.BBAN_INDEX) {
+            return false;
+        }
+        final BbanStructure structure = BbanStructure.forAlpha2(iban.charAt(offset),
+                iban.charAt(offset + 1));
+        if (structure == null || length != IbanUtil.BBAN_INDEX + structure.getBbanLength()
+                || !isDigit(iban.charAt(offset + 2)) || !isDigit(iban.charAt(offset + 3))) {
+            return false;
+        }
+        for (int i = offset + IbanUtil.BBAN_INDEX; i < offset + length; i++) {
+            if (value(iban.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(final char ch) {
+        final int value = value(ch);
+        return value >= 0 && value <= 9;
+    }
+}
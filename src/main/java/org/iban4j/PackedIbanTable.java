@@ -0,0 +1,317 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import java.nio.ByteBuffer;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Open addressing hash table keyed by packed ibans.
+ *
+ * The three words of every key are stored next to each other in one long array,
+ * so a probe reads a single cache line. Collisions are resolved by linear probing,
+ * removal shifts the following entries back, so no tombstones are left. A slot
+ * is empty when its first word is 0, which never holds a packed iban.
+ *
+ * Subclasses keep values in arrays parallel to the slots.
+ */
+abstract class PackedIbanTable {
+
+    private static final int WORDS = PackedIban.WORDS;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 29;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private int threshold;
+    private int modCount;
+
+    PackedIbanTable(final int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Allocates value arrays of the new capacity, keeping the current ones
+     * until {@link #endRehash()}.
+     */
+    abstract void beginRehash(int capacity);
+
+    /**
+     * Moves the value from a slot of the previous value arrays to a slot of the new ones.
+     */
+    abstract void rehashValue(int from, int to);
+
+    /**
+     * Releases the previous value arrays.
+     */
+    abstract void endRehash();
+
+    /**
+     * Moves the value between two slots of the current value arrays.
+     */
+    abstract void moveValue(int from, int to);
+
+    /**
+     * Clears the value of the slot.
+     */
+    abstract void clearValue(int slot);
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if there are no entries, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all entries, the capacity is kept.
+     */
+    public void clear() {
+        for (int slot = 0; slot <= mask; slot++) {
+            if (keys[slot * WORDS] != 0) {
+                keys[slot * WORDS] = 0;
+                keys[slot * WORDS + 1] = 0;
+                keys[slot * WORDS + 2] = 0;
+                clearValue(slot);
+            }
+        }
+        size = 0;
+        modCount++;
+    }
+
+    final int find(final PackedIban iban) {
+        return find(iban.getWord(0), iban.getWord(1), iban.getWord(2));
+    }
+
+    /**
+     * Finds the slot of the iban stored in the region. Regions which can't hold
+     * a packed iban are never found, so junk input costs no more than a scan.
+     */
+    final int find(final CharSequence iban, final int offset, final int length) {
+        if (iban == null) {
+            return -1;
+        }
+        IbanUtil.checkRegion(iban.length(), offset, length);
+        if (!PackedIban.isPackable(iban, offset, length)) {
+            return -1;
+        }
+        return find(PackedIban.word(iban, offset, length, 0),
+                PackedIban.word(iban, offset, length, 1),
+                PackedIban.word(iban, offset, length, 2));
+    }
+
+    final int find(final byte[] iban, final int offset, final int length) {
+        IbanUtil.checkRegion(iban.length, offset, length);
+        return find(new AsciiSequence(iban, offset, length), 0, length);
+    }
+
+    final int find(final ByteBuffer iban, final int offset, final int length) {
+        IbanUtil.checkRegion(iban.limit(), offset, length);
+        return find(new AsciiSequence(iban, offset, length), 0, length);
+    }
+
+    final int find(final long first, final long second, final long third) {
+        int slot = PackedIban.hash(first, second, third) & mask;
+        while (true) {
+            final int index = slot * WORDS;
+            final long word = keys[index];
+            if (word == 0) {
+                return -1;
+            }
+            if (word == first && keys[index + 1] == second && keys[index + 2] == third) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Inserts the key if it is not present yet.
+     *
+     * @return the slot of the present key, or the complement of the slot of the inserted key.
+     */
+    final int insert(final PackedIban iban) {
+        return insert(iban.getWord(0), iban.getWord(1), iban.getWord(2));
+    }
+
+    /**
+     * Validates the iban and inserts it. It is packed like lookups of
+     * {@link #find(CharSequence, int, int)}, so every accepted spelling of a
+     * valid iban, e.g. lower case letters, finds the inserted key.
+     */
+    final int insert(final CharSequence iban) {
+        final int length = iban == null ? 0 : iban.length();
+        IbanUtil.validate(iban, 0, length);
+        return insert(PackedIban.word(iban, 0, length, 0), PackedIban.word(iban, 0, length, 1),
+                PackedIban.word(iban, 0, length, 2));
+    }
+
+    final int insert(final long first, final long second, final long third) {
+        final int slot = find(first, second, third);
+        if (slot >= 0) {
+            return slot;
+        }
+        if (size >= threshold) {
+            grow();
+        }
+        final int empty = place(keys, mask, first, second, third);
+        size++;
+        modCount++;
+        return ~empty;
+    }
+
+    /**
+     * Removes the entry stored in the slot, moving following entries of its
+     * probe sequence back.
+     */
+    final void removeAt(final int slot) {
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            final int index = next * WORDS;
+            if (keys[index] == 0) {
+                break;
+            }
+            final int home = PackedIban.hash(keys[index], keys[index + 1], keys[index + 2]) & mask;
+            // the entry may move to the hole if the hole lies between its home and its slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                System.arraycopy(keys, index, keys, hole * WORDS, WORDS);
+                moveValue(next, hole);
+                hole = next;
+            }
+        }
+        keys[hole * WORDS] = 0;
+        keys[hole * WORDS + 1] = 0;
+        keys[hole * WORDS + 2] = 0;
+        clearValue(hole);
+        size--;
+        modCount++;
+    }
+
+    final PackedIban keyAt(final int slot) {
+        final int index = slot * WORDS;
+        return PackedIban.fromWords(keys[index], keys[index + 1], keys[index + 2]);
+    }
+
+    /**
+     * Iterates over the keys in slot order.
+     */
+    Iterator<PackedIban> keyIterator() {
+        return new Iterator<PackedIban>() {
+            private final int expectedModCount = modCount;
+            private int slot = nextSlot(0);
+
+            private int nextSlot(final int from) {
+                for (int i = from; i <= mask; i++) {
+                    if (keys[i * WORDS] != 0) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+
+            public boolean hasNext() {
+                return slot >= 0;
+            }
+
+            public PackedIban next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (slot < 0) {
+                    throw new NoSuchElementException();
+                }
+                final PackedIban key = keyAt(slot);
+                slot = nextSlot(slot + 1);
+                return key;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private void grow() {
+        final int capacity = mask + 1;
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Table can't hold more than " + threshold + " ibans.");
+        }
+        final long[] oldKeys = keys;
+        allocate(capacity * 2);
+        beginRehash(capacity * 2);
+        for (int slot = 0; slot < capacity; slot++) {
+            final int index = slot * WORDS;
+            if (oldKeys[index] != 0) {
+                rehashValue(slot, place(keys, mask, oldKeys[index], oldKeys[index + 1], oldKeys[index + 2]));
+            }
+        }
+        endRehash();
+    }
+
+    private static int place(final long[] keys, final int mask,
+                             final long first, final long second, final long third) {
+        int slot = PackedIban.hash(first, second, third) & mask;
+        while (keys[slot * WORDS] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        final int index = slot * WORDS;
+        keys[index] = first;
+        keys[index + 1] = second;
+        keys[index + 2] = third;
+        return slot;
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity * WORDS];
+        mask = capacity - 1;
+        threshold = capacity / 4 * 3;
+    }
+
+    final int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns the power of two capacity keeping the load factor at most 0.75.
+     */
+    private static int capacityFor(final int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity / 4 * 3 < expectedSize) {
+            if (capacity >= MAX_CAPACITY) {
+                throw new IllegalArgumentException("Expected size is too big: " + expectedSize);
+            }
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
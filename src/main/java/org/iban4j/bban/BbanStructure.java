@@ -22,17 +22,75 @@ import java.util.*;
 
 /**
  * Class which represents bban structure
+ *
+ * Every structure is compiled once into a table holding the character class
+ * of each bban position, so bban characters are validated in a single loop.
  */
 public class BbanStructure {
 
+    private static final byte DIGIT = 1;
+    private static final byte UPPER_CASE_LETTER = 2;
+    private static final byte LETTER_OR_DIGIT = 4;
+
+    private static final int ASCII_LIMIT = 128;
+    private static final byte[] ASCII_CLASSES = new byte[ASCII_LIMIT];
+
+    static {
+        for (char ch = '0'; ch <= '9'; ch++) {
+            ASCII_CLASSES[ch] = DIGIT | LETTER_OR_DIGIT;
+        }
+        for (char ch = 'A'; ch <= 'Z'; ch++) {
+            ASCII_CLASSES[ch] = UPPER_CASE_LETTER | LETTER_OR_DIGIT;
+            ASCII_CLASSES[Character.toLowerCase(ch)] = LETTER_OR_DIGIT;
+        }
+    }
+
     private final BbanStructureEntry[] entries;
+    private final List<BbanStructureEntry> entryList;
+    private final byte[] characterClasses;
+    private final int[] entryOffsets;
+    private final int[] entryLengths;
+    private final int bbanLength;
 
     private BbanStructure(final BbanStructureEntry... entries) {
         this.entries = entries;
+        this.entryList = Collections.unmodifiableList(Arrays.asList(entries));
+
+        int length = 0;
+        for (final BbanStructureEntry entry : entries) {
+            length += entry.getLength();
+        }
+        this.bbanLength = length;
+
+        this.entryOffsets = new int[BbanEntryType.values().length];
+        this.entryLengths = new int[entryOffsets.length];
+        Arrays.fill(entryOffsets, -1);
+        int entryOffset = 0;
+        for (final BbanStructureEntry entry : entries) {
+            final int type = entry.getEntryType().ordinal();
+            if (entryOffsets[type] < 0) {
+                entryOffsets[type] = entryOffset;
+                entryLengths[type] = entry.getLength();
+            }
+            entryOffset += entry.getLength();
+        }
+
+        this.characterClasses = new byte[length];
+        int position = 0;
+        for (final BbanStructureEntry entry : entries) {
+            final byte characterClass = characterClassOf(entry.getCharacterType());
+            for (int i = 0; i < entry.getLength(); i++) {
+                characterClasses[position++] = characterClass;
+            }
+        }
     }
 
     private static final EnumMap<CountryCode, BbanStructure> structures;
 
+    // Structures indexed by the position of both country code letters in the alphabet
+    private static final int LETTERS = 26;
+    private static final BbanStructure[] alpha2Structures = new BbanStructure[LETTERS * LETTERS];
+
     static {
         structures = new EnumMap<CountryCode, BbanStructure>(CountryCode.class);
 
@@ -489,6 +547,28 @@ public class BbanStructure {
                         BbanStructureEntry.branchCode(5, 'n'),
                         BbanStructureEntry.accountNumber(11, 'n'),
                         BbanStructureEntry.nationalCheckDigit(2, 'n')));
+
+        for (final Map.Entry<CountryCode, BbanStructure> entry : structures.entrySet()) {
+            final String alpha2 = entry.getKey().getAlpha2();
+            alpha2Structures[(alpha2.charAt(0) - 'A') * LETTERS + alpha2.charAt(1) - 'A'] =
+                    entry.getValue();
+        }
+    }
+
+    /**
+     * Returns the structure for the upper case country code letters, without
+     * resolving the {@link CountryCode}.
+     *
+     * @param first the first letter of the country code.
+     * @param second the second letter of the country code.
+     * @return BbanStructure for specified country or null if the letters are not
+     *         an upper case code of a supported country.
+     */
+    public static BbanStructure forAlpha2(final char first, final char second) {
+        if (first < 'A' || first > 'Z' || second < 'A' || second > 'Z') {
+            return null;
+        }
+        return alpha2Structures[(first - 'A') * LETTERS + second - 'A'];
     }
 
     /**
@@ -500,7 +580,7 @@ public class BbanStructure {
     }
 
     public List<BbanStructureEntry> getEntries() {
-        return Collections.unmodifiableList(Arrays.asList(entries));
+        return entryList;
     }
 
     public static List<CountryCode> supportedCountries() {
@@ -515,12 +595,88 @@ public class BbanStructure {
      * @return int length
      */
     public int getBbanLength() {
-        int length = 0;
+        return bbanLength;
+    }
 
-        for (BbanStructureEntry entry : entries) {
-            length += entry.getLength();
+    /**
+     * Returns the offset of the entry within bban.
+     *
+     * @param entryType the type of the entry.
+     * @return the offset or -1 if the structure doesn't have such entry.
+     */
+    public int getEntryOffset(final BbanEntryType entryType) {
+        return entryOffsets[entryType.ordinal()];
+    }
+
+    /**
+     * Returns the length of the entry.
+     *
+     * @param entryType the type of the entry.
+     * @return the length or 0 if the structure doesn't have such entry.
+     */
+    public int getEntryLength(final BbanEntryType entryType) {
+        return entryLengths[entryType.ordinal()];
+    }
+
+    /**
+     * Returns the entry which contains the specified bban position.
+     *
+     * @param position the index of a character within bban.
+     * @return the entry or null if position is out of bban.
+     */
+    public BbanStructureEntry getEntryAt(final int position) {
+        int entryEnd = 0;
+        for (final BbanStructureEntry entry : entries) {
+            entryEnd += entry.getLength();
+            if (position < entryEnd) {
+                return position < 0 ? null : entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the first bban character which doesn't match the character type
+     * of its entry. The sequence must hold at least bban length characters
+     * starting at offset.
+     *
+     * @param bban the character sequence holding the bban.
+     * @param offset the index of the first bban character.
+     * @return the position of the invalid character within bban, or -1 if
+     *         all characters are valid.
+     */
+    public int indexOfInvalidCharacter(final CharSequence bban, final int offset) {
+        for (int i = 0; i < bbanLength; i++) {
+            final char ch = bban.charAt(offset + i);
+            final byte characterClass = characterClasses[i];
+            if (ch < ASCII_LIMIT
+                    ? (ASCII_CLASSES[ch] & characterClass) == 0
+                    : !isOfClass(ch, characterClass)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static byte characterClassOf(final BbanStructureEntry.EntryCharacterType characterType) {
+        switch (characterType) {
+            case n:
+                return DIGIT;
+            case a:
+                return UPPER_CASE_LETTER;
+            default:
+                return LETTER_OR_DIGIT;
         }
+    }
 
-        return length;
+    private static boolean isOfClass(final char ch, final byte characterClass) {
+        switch (characterClass) {
+            case DIGIT:
+                return Character.isDigit(ch);
+            case UPPER_CASE_LETTER:
+                return Character.isUpperCase(ch);
+            default:
+                return Character.isLetterOrDigit(ch);
+        }
     }
 }
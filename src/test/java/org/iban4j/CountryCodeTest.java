@@ -93,6 +93,54 @@ public class CountryCodeTest {
         assertThat(code, is(nullValue()));
     }
 
+    @Test
+    public void fromAlpha2ShouldReturnCountry() {
+        for (CountryCode code : CountryCode.values()) {
+            String alpha2 = code.getAlpha2();
+            assertThat(CountryCode.fromAlpha2(alpha2.charAt(0), alpha2.charAt(1)), is(equalTo(code)));
+            assertThat(CountryCode.fromAlpha2("XX" + alpha2.toLowerCase(), 2), is(equalTo(code)));
+        }
+    }
+
+    @Test
+    public void fromAlpha2WithNonLettersShouldReturnNull() {
+        assertThat(CountryCode.fromAlpha2('D', '3'), is(nullValue()));
+        assertThat(CountryCode.fromAlpha2('@', 'E'), is(nullValue()));
+        assertThat(CountryCode.fromAlpha2('\u00c4', 'E'), is(nullValue()));
+    }
+
+    @Test
+    public void fromAlpha2WithShortSequenceShouldReturnNull() {
+        assertThat(CountryCode.fromAlpha2("DE", 1), is(nullValue()));
+        assertThat(CountryCode.fromAlpha2("DE", -1), is(nullValue()));
+    }
+
+    @Test
+    public void fromAlpha3ShouldReturnCountry() {
+        for (CountryCode code : CountryCode.values()) {
+            String alpha3 = code.getAlpha3();
+            assertThat(CountryCode.fromAlpha3(alpha3.charAt(0), alpha3.charAt(1), alpha3.charAt(2)),
+                    is(equalTo(code)));
+            assertThat(CountryCode.fromAlpha3(" " + alpha3.toLowerCase(), 1), is(equalTo(code)));
+        }
+    }
+
+    @Test
+    public void fromAlpha3WithUnknownCodeShouldReturnNull() {
+        for (char first = 'A'; first <= 'Z'; first++) {
+            for (char second = 'A'; second <= 'Z'; second++) {
+                for (char third = 'A'; third <= 'Z'; third++) {
+                    CountryCode code = CountryCode.fromAlpha3(first, second, third);
+                    if (code != null) {
+                        assertThat(code.getAlpha3(), is(equalTo("" + first + second + third)));
+                    }
+                }
+            }
+        }
+        assertThat(CountryCode.fromAlpha3('D', 'E', '1'), is(nullValue()));
+        assertThat(CountryCode.fromAlpha3("DE", 0), is(nullValue()));
+    }
+
     @Test
     public void getNameWithDECodeShouldReturnGermany() {
         assertThat(CountryCode.DE.getName(), is(equalTo("Germany")));
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class IbanBloomFilterTest {
+
+    @Test
+    public void filterShouldContainEveryAddedIban() {
+        List<Iban> ibans = randomIbans(10000);
+        IbanBloomFilter filter = IbanBloomFilter.build(ibans.iterator(), ibans.size(), 0.001);
+        for (Iban iban : ibans) {
+            assertThat(filter.mightContain(iban.toString()), is(true));
+            assertThat(filter.mightContain(PackedIban.valueOf(iban)), is(true));
+        }
+    }
+
+    @Test
+    public void falsePositiveRateShouldBeCloseToRequestedRate() {
+        List<Iban> ibans = randomIbans(10000);
+        Set<Iban> added = new HashSet<Iban>(ibans);
+        IbanBloomFilter filter = IbanBloomFilter.build(ibans.iterator(), ibans.size(), 0.01);
+        int falsePositives = 0;
+        int tested = 0;
+        for (Iban iban : randomIbans(50000)) {
+            if (!added.contains(iban)) {
+                tested++;
+                if (filter.mightContain(iban.toString())) {
+                    falsePositives++;
+                }
+            }
+        }
+        assertTrue("false positive rate " + (double) falsePositives / tested,
+                falsePositives < tested * 0.02);
+    }
+
+    @Test
+    public void lowerCaseIbanShouldBeContainedInEveryCase() {
+        IbanBloomFilter filter = IbanBloomFilter.create(10, 0.01);
+        filter.add("IT54X0542811101xyz000123456");
+        filter.add(Iban.valueOf("GB29NWBK60161331926819"));
+        assertThat(filter.mightContain("IT54X0542811101xyz000123456"), is(true));
+        assertThat(filter.mightContain("IT54X0542811101XYZ000123456"), is(true));
+        assertThat(filter.mightContain(PackedIban.valueOf("IT54X0542811101XYZ000123456")), is(true));
+    }
+
+    @Test
+    public void invalidInputShouldNeverBeContained() {
+        IbanBloomFilter filter = IbanBloomFilter.create(1, 0.5);
+        filter.add("DE89370400440532013000");
+        assertThat(filter.mightContain("DE88370400440532013000"), is(false));
+        assertThat(filter.mightContain("DE8937040044053201300"), is(false));
+        assertThat(filter.mightContain("de89370400440532013000"), is(false));
+        assertThat(filter.mightContain(""), is(false));
+    }
+
+    @Test
+    public void filterShouldBeRestoredFromWrittenBytes() throws IOException {
+        List<Iban> ibans = randomIbans(1000);
+        IbanBloomFilter filter = IbanBloomFilter.build(ibans.iterator(), ibans.size(), 0.001);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        filter.writeTo(out);
+
+        IbanBloomFilter restored = IbanBloomFilter.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(restored.getBitCount(), is(equalTo(filter.getBitCount())));
+        assertThat(restored.getHashFunctionCount(), is(equalTo(filter.getHashFunctionCount())));
+        for (Iban iban : ibans) {
+            byte[] bytes = iban.toString().getBytes("US-ASCII");
+            assertThat(restored.mightContain(bytes, 0, bytes.length), is(true));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void readingOtherBytesShouldThrowException() throws IOException {
+        IbanBloomFilter.readFrom(new ByteArrayInputStream(new byte[16]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidFalsePositiveRateShouldThrowException() {
+        IbanBloomFilter.create(10, 1.0);
+    }
+
+    private static List<Iban> randomIbans(final int count) {
+        List<Iban> ibans = new ArrayList<Iban>(count);
+        CountryCode[] countries = {CountryCode.DE, CountryCode.FR, CountryCode.NL, CountryCode.IT};
+        for (int i = 0; i < count; i++) {
+            ibans.add(Iban.random(countries[i % countries.length]));
+        }
+        return ibans;
+    }
+}
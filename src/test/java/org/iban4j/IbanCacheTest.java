@@ -0,0 +1,142 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class IbanCacheTest {
+
+    @Test
+    public void repeatedIbanShouldReturnSameInstance() {
+        IbanCache cache = new IbanCache(100);
+        Iban first = cache.valueOf(new String("DE89370400440532013000"));
+        Iban second = cache.valueOf(new String("DE89370400440532013000"));
+        assertThat(second, is(sameInstance(first)));
+        assertThat(first, is(equalTo(Iban.valueOf("DE89370400440532013000"))));
+        assertThat(cache.getHitCount(), is(equalTo(1L)));
+        assertThat(cache.getMissCount(), is(equalTo(1L)));
+        assertThat(cache.size(), is(equalTo(1)));
+    }
+
+    @Test(expected = InvalidCheckDigitException.class)
+    public void invalidIbanShouldThrowException() {
+        new IbanCache(100).valueOf("DE88370400440532013000");
+    }
+
+    @Test
+    public void invalidIbanShouldNotBeCached() {
+        IbanCache cache = new IbanCache(100);
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.valueOf("DE88370400440532013000");
+            } catch (InvalidCheckDigitException expected) {
+                // not cached, fails again
+            }
+        }
+        assertThat(cache.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void lruCacheShouldEvictLeastRecentlyUsedIban() {
+        IbanCache cache = new IbanCache(2, IbanCache.Eviction.LRU);
+        Iban first = cache.valueOf("DE89370400440532013000");
+        cache.valueOf("AT611904300234573201");
+        cache.valueOf("DE89370400440532013000");
+        cache.valueOf("GB29NWBK60161331926819");
+        assertThat(cache.size(), is(equalTo(2)));
+        assertThat(cache.valueOf("DE89370400440532013000"), is(sameInstance(first)));
+        Iban austrian = cache.valueOf("AT611904300234573201");
+        assertThat(cache.valueOf("AT611904300234573201"), is(sameInstance(austrian)));
+    }
+
+    @Test
+    public void tinyLfuCacheShouldKeepFrequentIbansDuringScan() {
+        IbanCache cache = new IbanCache(64, IbanCache.Eviction.TINY_LFU);
+        Iban frequent = null;
+        for (int i = 0; i < 10; i++) {
+            frequent = cache.valueOf("DE89370400440532013000");
+        }
+        for (int i = 0; i < 1000; i++) {
+            // still requested now and then, too rarely to stay in a plain lru cache
+            if (i % 100 == 99) {
+                cache.valueOf("DE89370400440532013000");
+            }
+            cache.valueOf(Iban.random(CountryCode.FR).toString());
+        }
+        assertThat(cache.size(), is(equalTo(64)));
+        assertThat(cache.valueOf("DE89370400440532013000"), is(sameInstance(frequent)));
+    }
+
+    @Test
+    public void lruCacheShouldLoseFrequentIbansDuringScan() {
+        IbanCache cache = new IbanCache(64, IbanCache.Eviction.LRU);
+        Iban frequent = null;
+        for (int i = 0; i < 10; i++) {
+            frequent = cache.valueOf("DE89370400440532013000");
+        }
+        for (int i = 0; i < 1000; i++) {
+            cache.valueOf(Iban.random(CountryCode.FR).toString());
+        }
+        assertThat(cache.valueOf("DE89370400440532013000"), is(not(sameInstance(frequent))));
+    }
+
+    @Test
+    public void concurrentCallsShouldNotExceedMaximumSize() throws Exception {
+        final IbanCache cache = new IbanCache(1000);
+        final List<String> ibans = new ArrayList<String>();
+        for (int i = 0; i < 3000; i++) {
+            ibans.add(Iban.random(CountryCode.DE).toString());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int t = 0; t < 4; t++) {
+                final int seed = t;
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        for (int i = 0; i < 20000; i++) {
+                            String iban = ibans.get((i * 31 + seed * 7) % (i % 2 == 0 ? 100 : ibans.size()));
+                            assertThat(cache.valueOf(iban).toString(), is(equalTo(iban)));
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.size() <= cache.getMaximumSize());
+        assertThat(cache.getHitCount() + cache.getMissCount(), is(equalTo(80000L)));
+    }
+}
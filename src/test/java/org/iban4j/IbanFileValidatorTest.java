@@ -0,0 +1,136 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.iban4j.IbanFormatException.IbanFormatViolation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IbanFileValidatorTest {
+
+    private static final String CONTENT =
+            "AT611904300234573201\n" +
+            "DE89370400440532013000\r\n" +
+            "AT621904300234573201\n" +
+            "\n" +
+            "AT61190430023457320#\n" +
+            "GB29NWBK60161331926819";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void fileValidationShouldCountEveryLine() throws IOException {
+        IbanStatistics statistics = IbanFileValidator.validate(write(CONTENT));
+        assertThat(statistics.getCount(), is(equalTo(6L)));
+        assertThat(statistics.getValidCount(), is(equalTo(3L)));
+        assertThat(statistics.getCount(IbanFormatViolation.CHECK_DIGIT_VALID), is(equalTo(1L)));
+        assertThat(statistics.getCount(IbanFormatViolation.IBAN_NOT_EMPTY), is(equalTo(1L)));
+        assertThat(statistics.getCount(IbanFormatViolation.BBAN_ONLY_DIGITS), is(equalTo(1L)));
+        assertThat(statistics.getCount(CountryCode.AT), is(equalTo(3L)));
+        assertThat(statistics.getValidCount(CountryCode.GB), is(equalTo(1L)));
+    }
+
+    @Test
+    public void fileValidationShouldReportInvalidLines() throws IOException {
+        RecordingListener listener = new RecordingListener();
+        IbanFileValidator.validate(write(CONTENT), listener);
+        assertThat(listener.lines.toString(), is(equalTo(
+                "[3 CHECK_DIGIT_VALID AT621904300234573201, 4 IBAN_NOT_EMPTY , "
+                        + "5 BBAN_ONLY_DIGITS AT61190430023457320#]")));
+    }
+
+    @Test
+    public void smallWindowsShouldGiveSameResultAsSingleWindow() throws IOException {
+        File file = write(CONTENT + "\n" + CONTENT + "\n");
+        RecordingListener expected = new RecordingListener();
+        IbanStatistics single = IbanFileValidator.validate(file, expected);
+        for (int windowSize = 1; windowSize < 64; windowSize++) {
+            RecordingListener listener = new RecordingListener();
+            IbanStatistics windowed = IbanFileValidator.validate(file, listener, windowSize);
+            assertThat(windowed.toString(), is(equalTo(single.toString())));
+            assertThat(listener.lines, is(equalTo(expected.lines)));
+        }
+        assertThat(single.getCount(), is(equalTo(12L)));
+    }
+
+    @Test
+    public void parallelValidationShouldGiveSameResultAsSingleWindow() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            content.append(CONTENT).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        File file = write(content.toString() + CONTENT);
+        IbanStatistics single = IbanFileValidator.validate(file);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int windowSize = 1; windowSize < 300; windowSize += 7) {
+                IbanStatistics parallel = IbanFileValidator.validateInParallel(file, executor, windowSize);
+                assertThat(parallel.toString(), is(equalTo(single.toString())));
+            }
+            assertThat(IbanFileValidator.validateInParallel(file, executor).toString(),
+                    is(equalTo(single.toString())));
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(single.getCount(), is(equalTo(1206L)));
+    }
+
+    @Test
+    public void emptyFileShouldHaveNoLines() throws Exception {
+        assertThat(IbanFileValidator.validate(write("")).getCount(), is(equalTo(0L)));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertThat(IbanFileValidator.validateInParallel(write(""), executor).getCount(), is(equalTo(0L)));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private File write(final String content) throws IOException {
+        File file = folder.newFile();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("US-ASCII"));
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private static class RecordingListener implements IbanFileValidator.Listener {
+
+        private final List<String> lines = new ArrayList<String>();
+
+        @Override
+        public void invalidLine(long lineNumber, IbanFormatViolation violation, CharSequence line) {
+            lines.add(lineNumber + " " + violation + " " + line);
+        }
+    }
+}
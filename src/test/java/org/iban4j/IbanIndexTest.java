@@ -0,0 +1,157 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IbanIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void builtIndexShouldContainEveryAddedIban() throws IOException {
+        File file = new File(folder.getRoot(), "mules.idx");
+        List<Iban> added = new ArrayList<Iban>();
+        List<Iban> absent = new ArrayList<Iban>();
+        for (int i = 0; i < 500; i++) {
+            added.add(Iban.random(CountryCode.DE));
+            absent.add(Iban.random(CountryCode.FR));
+        }
+        // small segments, so lookups cross segment boundaries
+        IbanIndex.Builder builder = IbanIndex.builder(file, added.size(), 4);
+        for (Iban iban : added) {
+            builder.add(iban);
+        }
+        assertThat(builder.add(added.get(0).toString()), is(false));
+        builder.build();
+
+        IbanIndex index = IbanIndex.open(file, 4);
+        assertThat(index.size(), is(equalTo((long) added.size())));
+        for (Iban iban : added) {
+            assertThat(index.contains(iban.toString()), is(true));
+            assertThat(index.contains(PackedIban.valueOf(iban)), is(true));
+        }
+        for (Iban iban : absent) {
+            assertThat(index.contains(iban.toString()), is(added.contains(iban)));
+        }
+        assertThat(folder.getRoot().list().length, is(equalTo(1)));
+    }
+
+    @Test
+    public void indexShouldLookUpByteRegionsAndIgnoreJunk() throws IOException {
+        File file = new File(folder.getRoot(), "mules.idx");
+        IbanIndex.Builder builder = IbanIndex.builder(file, 1);
+        builder.add("DE89370400440532013000");
+        builder.build();
+
+        IbanIndex index = IbanIndex.open(file);
+        byte[] bytes = "xDE89370400440532013000".getBytes("US-ASCII");
+        assertThat(index.contains(bytes, 1, 22), is(true));
+        assertThat(index.contains(ByteBuffer.wrap(bytes), 1, 22), is(true));
+        assertThat(index.contains("DE89 3704 0044 0532 0130 00"), is(false));
+        assertThat(index.contains("DE893704004405320130"), is(false));
+        assertThat(index.contains(""), is(false));
+    }
+
+    @Test
+    public void reloadShouldSwapToRebuiltIndex() throws IOException {
+        File file = new File(folder.getRoot(), "mules.idx");
+        IbanIndex.Builder builder = IbanIndex.builder(file, 10);
+        builder.add("DE89370400440532013000");
+        builder.build();
+        IbanIndex index = IbanIndex.open(file);
+
+        builder = IbanIndex.builder(file, 10);
+        builder.add("AT611904300234573201");
+        builder.build();
+        assertThat(index.contains("DE89370400440532013000"), is(true));
+
+        index.reload();
+        assertThat(index.contains("DE89370400440532013000"), is(false));
+        assertThat(index.contains("AT611904300234573201"), is(true));
+    }
+
+    @Test
+    public void closedBuilderShouldLeaveNoFiles() throws IOException {
+        IbanIndex.Builder builder = IbanIndex.builder(new File(folder.getRoot(), "mules.idx"), 10);
+        builder.add("DE89370400440532013000");
+        builder.close();
+        assertThat(folder.getRoot().list().length, is(equalTo(0)));
+    }
+
+    @Test
+    public void lowerCaseIbanShouldBeFoundInEveryCase() throws IOException {
+        File file = new File(folder.getRoot(), "mules.idx");
+        IbanIndex.Builder builder = IbanIndex.builder(file, 1);
+        assertThat(builder.add("IT54X0542811101xyz000123456"), is(true));
+        assertThat(builder.add(Iban.valueOf("IT54X0542811101XYZ000123456")), is(false));
+        builder.build();
+
+        IbanIndex index = IbanIndex.open(file);
+        assertThat(index.contains("IT54X0542811101xyz000123456"), is(true));
+        assertThat(index.contains("IT54X0542811101XYZ000123456"), is(true));
+    }
+
+    @Test
+    public void builderShouldAcceptExpectedSize() throws IOException {
+        IbanIndex.Builder builder = IbanIndex.builder(new File(folder.getRoot(), "mules.idx"), 100);
+        try {
+            while (builder.size() < 100) {
+                builder.add(Iban.random(CountryCode.DE));
+            }
+        } finally {
+            builder.close();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addingTooManyIbansShouldThrowException() throws IOException {
+        IbanIndex.Builder builder = IbanIndex.builder(new File(folder.getRoot(), "mules.idx"), 1);
+        try {
+            for (int i = 0; i < 100; i++) {
+                builder.add(Iban.random(CountryCode.DE));
+            }
+        } finally {
+            builder.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void openingOtherFileShouldThrowException() throws IOException {
+        File file = folder.newFile();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[64]);
+        } finally {
+            out.close();
+        }
+        IbanIndex.open(file);
+    }
+}
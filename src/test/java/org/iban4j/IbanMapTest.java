@@ -0,0 +1,121 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Enclosed.class)
+public class IbanMapTest {
+
+    public static class IbanToLongMapTest {
+
+        @Test
+        public void putShouldReturnPreviousValue() {
+            IbanToLongMap map = new IbanToLongMap(0, -1);
+            assertThat(map.put("DE89370400440532013000", 7), is(equalTo(-1L)));
+            assertThat(map.put(Iban.valueOf("DE89370400440532013000"), 8), is(equalTo(7L)));
+            assertThat(map.get("DE89370400440532013000"), is(equalTo(8L)));
+            assertThat(map.get("AT611904300234573201"), is(equalTo(-1L)));
+            assertThat(map.size(), is(equalTo(1)));
+        }
+
+        @Test
+        public void lowerCaseIbanShouldFindValueOfAnyCase() {
+            IbanToLongMap map = new IbanToLongMap(0, -1);
+            map.put("IT54X0542811101xyz000123456", 7);
+            assertThat(map.get("IT54X0542811101xyz000123456"), is(equalTo(7L)));
+            assertThat(map.get("IT54X0542811101XYZ000123456"), is(equalTo(7L)));
+            assertThat(map.containsKey(PackedIban.valueOf(Iban.valueOf("IT54X0542811101xyz000123456"))), is(true));
+        }
+
+        @Test
+        public void mapShouldBehaveLikeHashMap() {
+            Random random = new Random(7);
+            Iban[] ibans = new Iban[1000];
+            for (int i = 0; i < ibans.length; i++) {
+                ibans[i] = Iban.random(CountryCode.GB);
+            }
+            IbanToLongMap map = new IbanToLongMap();
+            Map<Iban, Long> expected = new HashMap<Iban, Long>();
+            for (int i = 0; i < 10000; i++) {
+                Iban iban = ibans[random.nextInt(ibans.length)];
+                if (random.nextInt(4) == 0) {
+                    Long removed = expected.remove(iban);
+                    assertThat(map.remove(iban.toString()), is(equalTo(removed == null ? 0L : removed)));
+                } else {
+                    long value = random.nextLong();
+                    Long previous = expected.put(iban, value);
+                    assertThat(map.put(iban, value), is(equalTo(previous == null ? 0L : previous)));
+                }
+            }
+            assertThat(map.size(), is(equalTo(expected.size())));
+            for (Iban iban : ibans) {
+                Long value = expected.get(iban);
+                assertThat(map.get(iban), is(equalTo(value == null ? 0L : value)));
+                assertThat(map.containsKey(iban.toString()), is(equalTo(value != null)));
+            }
+        }
+    }
+
+    public static class IbanToObjectMapTest {
+
+        @Test
+        public void mapShouldLookUpValuesFromByteRegions() throws Exception {
+            IbanToObjectMap<String> map = new IbanToObjectMap<String>();
+            assertThat(map.put("DE89370400440532013000", "mule"), is(nullValue()));
+            assertThat(map.put("AT611904300234573201", "sanctioned"), is(nullValue()));
+            byte[] bytes = "DE89370400440532013000;AT611904300234573201".getBytes("US-ASCII");
+            assertThat(map.get(bytes, 0, 22), is(equalTo("mule")));
+            assertThat(map.get(bytes, 23, 20), is(equalTo("sanctioned")));
+            assertThat(map.get(bytes, 0, 20), is(nullValue()));
+        }
+
+        @Test
+        public void removedIbanShouldBeAbsent() {
+            IbanToObjectMap<String> map = new IbanToObjectMap<String>();
+            map.put("DE89370400440532013000", "mule");
+            assertThat(map.remove(PackedIban.valueOf("DE89370400440532013000")), is(equalTo("mule")));
+            assertThat(map.get("DE89370400440532013000"), is(nullValue()));
+            assertThat(map.isEmpty(), is(true));
+        }
+
+        @Test
+        public void lowerCaseIbanShouldFindValueOfAnyCase() {
+            IbanToObjectMap<String> map = new IbanToObjectMap<String>();
+            map.put("IT54X0542811101xyz000123456", "mule");
+            assertThat(map.get("IT54X0542811101xyz000123456"), is(equalTo("mule")));
+            assertThat(map.get("IT54X0542811101XYZ000123456"), is(equalTo("mule")));
+            assertThat(map.put(Iban.valueOf("IT54X0542811101XYZ000123456"), "fraud"), is(equalTo("mule")));
+            assertThat(map.size(), is(equalTo(1)));
+        }
+
+        @Test(expected = NullPointerException.class)
+        public void nullValueShouldThrowException() {
+            new IbanToObjectMap<String>().put("DE89370400440532013000", null);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.iban4j.bban.BbanEntryType;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Enclosed.class)
+public class IbanRedactorTest {
+
+    public static class MaskPolicyTest {
+
+        private static final Iban IBAN = Iban.valueOf("GB29NWBK60161331926819");
+
+        @Test
+        public void defaultPolicyShouldMatchMaskedFormat() {
+            assertThat(IBAN.mask(MaskPolicy.DEFAULT), is(equalTo(IbanFormat.Masked.format(IBAN))));
+            assertThat(IBAN.mask(MaskPolicy.DEFAULT), is(equalTo("GB29 **** **** **** **68 19")));
+        }
+
+        @Test
+        public void keepLastShouldKeepSuffix() {
+            assertThat(IBAN.mask(MaskPolicy.keepLast(8)), is(equalTo("GB29 **** **** **31 9268 19")));
+            assertThat(IBAN.mask(MaskPolicy.keepLast(0)), is(equalTo("GB29 **** **** **** **** **")));
+        }
+
+        @Test
+        public void keepLastLongerThanBbanShouldKeepEverything() {
+            assertThat(IBAN.mask(MaskPolicy.keepLast(40)), is(equalTo(IBAN.toFormattedString())));
+        }
+
+        @Test
+        public void keepEntriesShouldKeepBankCode() {
+            assertThat(IBAN.mask(MaskPolicy.keepEntries(BbanEntryType.bank_code)),
+                    is(equalTo("GB29 NWBK **** **** **** **")));
+        }
+
+        @Test
+        public void policyShouldCombineEntriesAndSuffix() {
+            MaskPolicy policy = MaskPolicy.keepLast(2)
+                    .withVisibleEntries(BbanEntryType.bank_code, BbanEntryType.branch_code)
+                    .withMaskCharacter('X')
+                    .withGrouping(false);
+            assertThat(IBAN.mask(policy), is(equalTo("GB29NWBK601613XXXXXX19")));
+        }
+
+        @Test(expected = IllegalArgumentException.class)
+        public void negativeSuffixLengthShouldThrowException() {
+            MaskPolicy.keepLast(-1);
+        }
+
+        @Test
+        public void utilMaskShouldAppendToAppendable() throws IOException {
+            StringWriter writer = new StringWriter();
+            IbanUtil.mask("GB29NWBK60161331926819", MaskPolicy.DEFAULT, writer);
+            assertThat(writer.toString(), is(equalTo("GB29 **** **** **** **68 19")));
+        }
+
+        @Test(expected = InvalidCheckDigitException.class)
+        public void utilMaskWithInvalidIbanShouldThrowException() throws IOException {
+            IbanUtil.mask("GB28NWBK60161331926819", MaskPolicy.DEFAULT, new StringBuilder());
+        }
+    }
+
+    public static class RedactionTest {
+
+        private final IbanRedactor redactor = new IbanRedactor();
+
+        @Test
+        public void electronicIbanShouldBeMasked() {
+            assertThat(redactor.redact("Paid to GB29NWBK60161331926819 today."),
+                    is(equalTo("Paid to GB29**************6819 today.")));
+        }
+
+        @Test
+        public void printedIbanShouldBeMaskedKeepingSpaces() {
+            assertThat(redactor.redact("iban=DE89 3704 0044 0532 0130 00, amount=10"),
+                    is(equalTo("iban=DE89 **** **** **** **30 00, amount=10")));
+        }
+
+        @Test
+        public void multipleIbansShouldBeMasked() {
+            StringBuilder text = new StringBuilder(
+                    "from GB29NWBK60161331926819 to DE89 3704 0044 0532 0130 00");
+            assertThat(redactor.redactInPlace(text), is(equalTo(2)));
+            assertThat(text.toString(),
+                    is(equalTo("from GB29**************6819 to DE89 **** **** **** **30 00")));
+        }
+
+        @Test
+        public void invalidCheckDigitShouldNotBeMasked() {
+            String text = "GB28NWBK60161331926819";
+            assertThat(redactor.redact(text), is(equalTo(text)));
+        }
+
+        @Test
+        public void ibanInsideWordShouldNotBeMasked() {
+            String text = "XGB29NWBK60161331926819 GB29NWBK603161331926819 GB29NWBK601613319268190";
+            assertThat(redactor.redact(text), is(equalTo(text)));
+        }
+
+        @Test
+        public void lowerCaseIbanShouldBeMasked() {
+            assertThat(redactor.redact("iban: gb29nwbk60161331926819, Gb29 NwBk 6016 1331 9268 19"),
+                    is(equalTo("iban: gb29**************6819, Gb29 **** **** **** **68 19")));
+        }
+
+        @Test
+        public void redactShouldNotChangeCharSequenceArgument() {
+            StringBuilder text = new StringBuilder("GB29NWBK60161331926819");
+            CharSequence sequence = text;
+            assertThat(redactor.redact(sequence), is(equalTo("GB29**************6819")));
+            assertThat(text.toString(), is(equalTo("GB29NWBK60161331926819")));
+        }
+
+        @Test
+        public void inconsistentGroupingShouldNotBeMasked() {
+            String text = "DE89 37040044 0532 0130 00";
+            assertThat(redactor.redact(text), is(equalTo(text)));
+        }
+
+        @Test
+        public void ibanAtTextBoundariesShouldBeMasked() {
+            assertThat(redactor.redact("GB29NWBK60161331926819"), is(equalTo("GB29**************6819")));
+        }
+
+        @Test
+        public void redactToAppendableShouldCountIbans() throws IOException {
+            StringWriter writer = new StringWriter();
+            int count = redactor.redact("a GB29NWBK60161331926819 b", writer);
+            assertThat(count, is(equalTo(1)));
+            assertThat(writer.toString(), is(equalTo("a GB29**************6819 b")));
+        }
+
+        @Test
+        public void redactCharArrayShouldMaskRegionInPlace() {
+            char[] text = "> GB29NWBK60161331926819 <".toCharArray();
+            assertThat(redactor.redactInPlace(text, 2, 22), is(equalTo(1)));
+            assertThat(new String(text), is(equalTo("> GB29**************6819 <")));
+        }
+
+        @Test
+        public void customPolicyShouldBeApplied() {
+            IbanRedactor redactor = new IbanRedactor(MaskPolicy.keepEntries(BbanEntryType.bank_code)
+                    .withMaskCharacter('#'));
+            assertThat(redactor.redact("GB29 NWBK 6016 1331 9268 19"),
+                    is(equalTo("GB29 NWBK #### #### #### ##")));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IbanScannerTest {
+
+    private static final Iban GB = Iban.valueOf("GB29NWBK60161331926819");
+    private static final Iban DE = Iban.valueOf("DE89370400440532013000");
+
+    private final IbanScanner scanner = new IbanScanner();
+
+    @Test
+    public void scanShouldFindElectronicAndPrintedIbans() {
+        String text = "Please transfer to GB29NWBK60161331926819 or (DE89 3704 0044 0532 0130 00).";
+        assertThat(scanner.scan(text), is(equalTo(Arrays.asList(GB, DE))));
+    }
+
+    @Test
+    public void scanShouldSkipInvalidCandidates() {
+        String text = "GB28NWBK60161331926819 XGB29NWBK60161331926819 GB29NWBK601613319268190 "
+                + "ZZ29NWBK60161331926819 DE89 37040044 0532 0130 00 gb28nwbk60161331926819";
+        assertThat(scanner.scan(text), is(equalTo(Collections.<Iban>emptyList())));
+    }
+
+    @Test
+    public void scanShouldFindLowerCaseIbansInUpperCase() {
+        assertThat(scanner.scan("iban gb29 nwbk 6016 1331 9268 19"), is(equalTo(Collections.singletonList(GB))));
+    }
+
+    @Test
+    public void scanShouldReportPositions() {
+        final List<Long> positions = new ArrayList<Long>();
+        String text = "a: GB29 NWBK 6016 1331 9268 19; b: DE89370400440532013000";
+        int count = scanner.scan(text, new IbanScanner.Listener() {
+            @Override
+            public void found(Iban iban, long start, long end) {
+                positions.add(start);
+                positions.add(end);
+            }
+        });
+        assertThat(count, is(equalTo(2)));
+        assertThat(positions, is(equalTo(Arrays.asList(3L, 30L, 35L, 57L))));
+    }
+
+    @Test
+    public void scanByteBufferShouldUseRemainingBytes() {
+        byte[] bytes = "xx GB29NWBK60161331926819 DE89370400440532013000".getBytes(Charset.forName("US-ASCII"));
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.position(4);
+        assertThat(scanner.scan(buffer), is(equalTo(Collections.singletonList(DE))));
+        assertThat(buffer.position(), is(equalTo(4)));
+        buffer.position(0);
+        assertThat(scanner.scan(buffer), is(equalTo(Arrays.asList(GB, DE))));
+    }
+
+    @Test
+    public void scanReaderShouldFindIbansAcrossReads() throws IOException {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        List<Iban> expected = new ArrayList<Iban>();
+        for (int i = 0; i < 500; i++) {
+            Iban iban = Iban.random();
+            expected.add(iban);
+            text.append(random.nextBoolean() ? iban.toString() : iban.toFormattedString());
+            for (int gap = random.nextInt(20); gap >= 0; gap--) {
+                text.append(random.nextBoolean() ? ' ' : '.');
+            }
+        }
+        assertThat(scanner.scan(text), is(equalTo(expected)));
+        assertThat(scanner.scan(new StringReader(text.toString())), is(equalTo(expected)));
+        IbanScanner smallBuffer = new IbanScanner(2 * IbanMatcher.MAX_MATCH_LENGTH + 5);
+        assertThat(smallBuffer.scan(new StringReader(text.toString())), is(equalTo(expected)));
+    }
+
+    @Test
+    public void scanReaderShouldReportAbsolutePositions() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append(i % 7 == 0 ? "GB29NWBK60161331926819" : "filler").append(' ');
+        }
+        final StringBuilder found = new StringBuilder();
+        final String source = text.toString();
+        long count = new IbanScanner(200).scan(new StringReader(source), new IbanScanner.Listener() {
+            @Override
+            public void found(Iban iban, long start, long end) {
+                found.append(source, (int) start, (int) end).append(' ');
+            }
+        });
+        assertThat(count, is(equalTo(143L)));
+        assertThat(found.toString().replace("GB29NWBK60161331926819 ", ""), is(equalTo("")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooSmallBufferShouldThrowException() {
+        new IbanScanner(IbanMatcher.MAX_MATCH_LENGTH);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Enclosed.class)
+public class IbanSegmentTest {
+
+    @RunWith(Parameterized.class)
+    public static class IbanViewTest {
+
+        private final Iban iban;
+
+        public IbanViewTest(Iban iban, String ibanString) {
+            this.iban = iban;
+        }
+
+        @Test
+        public void viewsShouldHoldSameCharactersAsGetters() {
+            assertThat(iban.bankCodeView().toString(), is(equalTo(iban.getBankCode())));
+            assertThat(iban.accountNumberView().toString(), is(equalTo(iban.getAccountNumber())));
+            assertThat(iban.bbanView().toString(), is(equalTo(iban.getBban())));
+            if (iban.getBranchCode() == null) {
+                assertThat(iban.branchCodeView(), is(nullValue()));
+            } else {
+                assertThat(iban.branchCodeView().toString(), is(equalTo(iban.getBranchCode())));
+            }
+        }
+
+        @Test
+        public void viewHashCodeShouldBeEqualToStringHashCode() {
+            assertThat(iban.bbanView().hashCode(), is(equalTo(iban.getBban().hashCode())));
+            assertThat(iban.bankCodeView().hashCode(), is(equalTo(iban.getBankCode().hashCode())));
+        }
+
+        @Parameterized.Parameters
+        public static Collection<Object[]> ibanParameters() {
+            return TestDataHelper.getIbanData();
+        }
+    }
+
+    public static class DefaultIbanSegmentTest {
+
+        private final Iban iban = Iban.valueOf("DE89370400440532013000");
+
+        @Test
+        public void segmentShouldBeUsableAsHashMapKey() {
+            final Map<IbanSegment, String> banks = new HashMap<IbanSegment, String>();
+            banks.put(IbanSegment.of("37040044"), "Commerzbank");
+            assertThat(banks.get(iban.bankCodeView()), is(equalTo("Commerzbank")));
+        }
+
+        @Test
+        public void segmentShouldEqualSegmentWithSameCharacters() {
+            assertThat(iban.bankCodeView().equals(IbanSegment.of("37040044")), is(true));
+            assertThat(iban.bankCodeView().equals(IbanSegment.of("37040045")), is(false));
+            assertThat(iban.bankCodeView().equals("37040044"), is(false));
+        }
+
+        @Test
+        public void contentEqualsShouldCompareWithAnySequence() {
+            assertThat(iban.bankCodeView().contentEquals("37040044"), is(true));
+            assertThat(iban.bankCodeView().contentEquals(new StringBuilder("3704004")), is(false));
+            assertThat("37040044".contentEquals(iban.bankCodeView()), is(true));
+            assertThat(IbanSegment.contentEquals(null, null), is(true));
+            assertThat(IbanSegment.contentEquals(iban.bankCodeView(), null), is(false));
+        }
+
+        @Test
+        public void compareShouldOrderAsString() {
+            assertThat(IbanSegment.compare(iban.bankCodeView(), "37040044"), is(equalTo(0)));
+            assertThat(Integer.signum(IbanSegment.compare(iban.bankCodeView(), "37040045")),
+                    is(equalTo(-1)));
+            assertThat(Integer.signum(IbanSegment.compare(iban.bankCodeView(), "3704004")),
+                    is(equalTo(1)));
+            assertThat(Integer.signum(iban.bankCodeView().compareTo(IbanSegment.of("2"))),
+                    is(equalTo(1)));
+        }
+
+        @Test
+        public void subSequenceShouldShareIbanCharacters() {
+            final IbanSegment bban = iban.bbanView();
+            assertThat(bban.subSequence(0, 8), is(equalTo(iban.bankCodeView())));
+            assertThat(bban.subSequence(8, 18).toString(), is(equalTo("0532013000")));
+            assertThat(bban.charAt(0), is(equalTo('3')));
+        }
+
+        @Test(expected = IndexOutOfBoundsException.class)
+        public void charAtOutsideOfSegmentShouldThrowException() {
+            iban.bankCodeView().charAt(8);
+        }
+
+        @Test(expected = IndexOutOfBoundsException.class)
+        public void subSequenceOutsideOfSegmentShouldThrowException() {
+            iban.bankCodeView().subSequence(4, 9);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IbanSetTest {
+
+    @Test
+    public void addedIbanShouldBeContainedInEveryForm() throws Exception {
+        IbanSet set = new IbanSet();
+        assertThat(set.add("DE89370400440532013000"), is(true));
+        assertThat(set.add(Iban.valueOf("DE89370400440532013000")), is(false));
+        assertThat(set.size(), is(equalTo(1)));
+
+        byte[] bytes = "xxDE89370400440532013000".getBytes("US-ASCII");
+        assertThat(set.contains(Iban.valueOf("DE89370400440532013000")), is(true));
+        assertThat(set.contains(PackedIban.valueOf("DE89370400440532013000")), is(true));
+        assertThat(set.contains("DE89370400440532013000"), is(true));
+        assertThat(set.contains("xxDE89370400440532013000", 2, 22), is(true));
+        assertThat(set.contains(bytes, 2, 22), is(true));
+        assertThat(set.contains(ByteBuffer.wrap(bytes), 2, 22), is(true));
+    }
+
+    @Test
+    public void lowerCaseIbanShouldBeFoundInEveryCase() {
+        IbanSet set = new IbanSet();
+        assertThat(set.add("IT54X0542811101xyz000123456"), is(true));
+        assertThat(set.add("IT54X0542811101XYZ000123456"), is(false));
+        assertThat(set.contains("IT54X0542811101xyz000123456"), is(true));
+        assertThat(set.contains("IT54X0542811101XYZ000123456"), is(true));
+        assertThat(set.contains(Iban.valueOf("IT54X0542811101xyz000123456")), is(true));
+        assertThat(set.iterator().next().toString(), is(equalTo("IT54X0542811101XYZ000123456")));
+    }
+
+    @Test
+    public void malformedInputShouldNotBeContained() {
+        IbanSet set = new IbanSet();
+        set.add("DE89370400440532013000");
+        assertThat(set.contains("de89370400440532013000"), is(false));
+        assertThat(set.contains("DE8937040044053201300"), is(false));
+        assertThat(set.contains("XX89370400440532013000"), is(false));
+        assertThat(set.contains(""), is(false));
+        assertThat(set.contains((CharSequence) null), is(false));
+    }
+
+    @Test(expected = InvalidCheckDigitException.class)
+    public void addingInvalidIbanShouldThrowException() {
+        new IbanSet().add("DE88370400440532013000");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void regionOutsideOfArrayShouldThrowException() {
+        new IbanSet().contains(new byte[10], 2, 22);
+    }
+
+    @Test
+    public void setShouldBehaveLikeHashSet() {
+        Random random = new Random(42);
+        List<Iban> ibans = new ArrayList<Iban>();
+        for (int i = 0; i < 2000; i++) {
+            ibans.add(Iban.random(random.nextBoolean() ? CountryCode.DE : CountryCode.AT));
+        }
+        IbanSet set = new IbanSet();
+        Set<Iban> expected = new HashSet<Iban>();
+        for (int i = 0; i < 20000; i++) {
+            Iban iban = ibans.get(random.nextInt(ibans.size()));
+            if (random.nextInt(3) == 0) {
+                assertThat(set.remove(iban.toString()), is(equalTo(expected.remove(iban))));
+            } else {
+                assertThat(set.add(iban), is(equalTo(expected.add(iban))));
+            }
+            assertThat(set.size(), is(equalTo(expected.size())));
+        }
+        for (Iban iban : ibans) {
+            assertThat(set.contains(iban), is(equalTo(expected.contains(iban))));
+        }
+        Set<Iban> iterated = new HashSet<Iban>();
+        for (PackedIban packed : set) {
+            iterated.add(packed.toIban());
+        }
+        assertThat(iterated, is(equalTo(expected)));
+    }
+
+    @Test
+    public void clearedSetShouldBeEmpty() {
+        IbanSet set = new IbanSet(100);
+        set.add("DE89370400440532013000");
+        set.clear();
+        assertThat(set.isEmpty(), is(true));
+        assertThat(set.contains("DE89370400440532013000"), is(false));
+        assertThat(set.iterator().hasNext(), is(false));
+    }
+}
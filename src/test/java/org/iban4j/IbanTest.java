@@ -15,18 +15,30 @@
  */
 package org.iban4j;
 
+import org.iban4j.IbanFormatException.IbanFormatViolation;
+import org.iban4j.bban.BbanStructure;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.util.Collection;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 @RunWith(Enclosed.class)
 public class IbanTest {
@@ -308,6 +320,219 @@ public class IbanTest {
             Iban iban = Iban.valueOf("AT61 1904 3002 3457 3201", IbanFormat.Default);
             assertThat(iban.toFormattedString(), is(equalTo("AT61 1904 3002 3457 3201")));
         }
+
+        @Test
+        public void ibanToFormattedStringShouldBeCached() {
+            Iban iban = Iban.valueOf("GB29NWBK60161331926819");
+            assertThat(iban.toFormattedString(), is(equalTo("GB29 NWBK 6016 1331 9268 19")));
+            assertThat(iban.toFormattedString(), is(sameInstance(iban.toFormattedString())));
+        }
+
+        @Test
+        public void appendFormattedToShouldAppendFormattedString() throws IOException {
+            Iban iban = Iban.valueOf("DE89370400440532013000");
+            assertThat(iban.appendFormattedTo(new StringBuilder("IBAN: ")).toString(),
+                    is(equalTo("IBAN: DE89 3704 0044 0532 0130 00")));
+            StringWriter writer = new StringWriter();
+            iban.appendFormattedTo(writer);
+            iban.toFormattedString();
+            iban.appendFormattedTo(writer.append(';'));
+            assertThat(writer.toString(),
+                    is(equalTo("DE89 3704 0044 0532 0130 00;DE89 3704 0044 0532 0130 00")));
+        }
+    }
+
+    public static class IbanFormatParsingTest {
+
+        @Test
+        public void lenientFormatShouldIgnoreSeparatorsAndCase() {
+            Iban iban = Iban.valueOf(" at61-1904\t3002\u00A03457  3201 ", IbanFormat.Lenient);
+            assertThat(iban, is(equalTo(Iban.valueOf("AT611904300234573201"))));
+            assertThat(iban.toString(), is(equalTo("AT611904300234573201")));
+        }
+
+        @Test
+        public void lenientFormatShouldAcceptEveryGroupingOfRandomIbans() {
+            for (CountryCode countryCode : BbanStructure.supportedCountries()) {
+                Iban iban = Iban.random(countryCode);
+                String dashed = iban.toFormattedString().replace(' ', '-').toLowerCase();
+                assertThat(Iban.valueOf(dashed, IbanFormat.Lenient), is(equalTo(iban)));
+                assertThat(Iban.valueOf(iban.toFormattedString(), IbanFormat.Default), is(equalTo(iban)));
+            }
+        }
+
+        @Test(expected = InvalidCheckDigitException.class)
+        public void lenientFormatWithInvalidCheckDigitShouldThrowException() {
+            Iban.valueOf("at62 1904 3002 3457 3201", IbanFormat.Lenient);
+        }
+
+        @Test
+        public void lenientFormatWithInvalidCharacterShouldReportViolation() {
+            try {
+                Iban.valueOf("AT61 1904 3002 3457 32_1", IbanFormat.Lenient);
+                fail("IbanFormatException expected");
+            } catch (IbanFormatException e) {
+                assertThat(e.getFormatViolation(), is(equalTo(IbanFormatViolation.BBAN_ONLY_DIGITS)));
+            }
+        }
+
+        @Test
+        public void defaultFormatWithTrailingSpaceShouldReportFormatting() {
+            try {
+                Iban.valueOf("AT61 1904 3002 3457 3201 ", IbanFormat.Default);
+                fail("IbanFormatException expected");
+            } catch (IbanFormatException e) {
+                assertThat(e.getFormatViolation(), is(equalTo(IbanFormatViolation.IBAN_FORMATTING)));
+            }
+        }
+
+        @Test(expected = InvalidCheckDigitException.class)
+        public void defaultFormatShouldReportInvalidIbanBeforeFormatting() {
+            Iban.valueOf("AT62  1904 3002 3457 3201", IbanFormat.Default);
+        }
+
+        @Test(expected = IbanFormatException.class)
+        public void defaultFormatShouldNotAcceptLowerCase() {
+            Iban.valueOf("at61 1904 3002 3457 3201", IbanFormat.Default);
+        }
+
+        @Test(expected = IbanFormatException.class)
+        public void lenientFormatWithNullShouldThrowException() {
+            Iban.valueOf(null, IbanFormat.Lenient);
+        }
+    }
+
+    public static class IbanFormatWritingTest {
+
+        private final Iban iban = Iban.valueOf("GB29NWBK60161331926819");
+
+        @Test
+        public void everyFormatShouldWriteIban() {
+            assertThat(IbanFormat.None.format(iban), is(equalTo("GB29NWBK60161331926819")));
+            assertThat(IbanFormat.Default.format(iban), is(equalTo("GB29 NWBK 6016 1331 9268 19")));
+            assertThat(IbanFormat.National.format(iban), is(equalTo("GB29 NWBK 601613 31926819")));
+            assertThat(IbanFormat.Masked.format(iban), is(equalTo("GB29 **** **** **** **68 19")));
+            assertThat(IbanFormat.Masked.format(Iban.valueOf("DE89370400440532013000")),
+                    is(equalTo("DE89 **** **** **** **30 00")));
+        }
+
+        @Test
+        public void formatShouldAppendToBuilderAndBuffer() {
+            assertThat(IbanFormat.National.format(iban, new StringBuilder("> ")).toString(),
+                    is(equalTo("> GB29 NWBK 601613 31926819")));
+            CharBuffer buffer = CharBuffer.allocate(64);
+            IbanFormat.Masked.format(iban, buffer).put(';');
+            IbanFormat.None.format(iban, buffer);
+            buffer.flip();
+            assertThat(buffer.toString(), is(equalTo("GB29 **** **** **** **68 19;GB29NWBK60161331926819")));
+        }
+
+        @Test(expected = BufferOverflowException.class)
+        public void formatIntoFullBufferShouldThrowException() {
+            IbanFormat.Default.format(iban, CharBuffer.allocate(10));
+        }
+
+        @Test
+        public void nationallyFormattedIbanShouldBeParsed() {
+            assertThat(Iban.valueOf("GB29 NWBK 601613 31926819", IbanFormat.National), is(equalTo(iban)));
+            for (CountryCode countryCode : BbanStructure.supportedCountries()) {
+                Iban random = Iban.random(countryCode);
+                assertThat(Iban.valueOf(IbanFormat.National.format(random), IbanFormat.National),
+                        is(equalTo(random)));
+            }
+        }
+
+        @Test(expected = IbanFormatException.class)
+        public void printFormattedIbanShouldNotBeParsedAsNational() {
+            Iban.valueOf("GB29 NWBK 6016 1331 9268 19", IbanFormat.National);
+        }
+
+        @Test(expected = IllegalArgumentException.class)
+        public void maskedIbanShouldNotBeParsed() {
+            Iban.valueOf("GB29 **** **** **** **68 19", IbanFormat.Masked);
+        }
+    }
+
+    public static class IbanTryValueOfTest {
+
+        @Test
+        public void tryValueOfWithValidIbanShouldReturnIban() {
+            assertThat(Iban.tryValueOf("AT611904300234573201"),
+                    is(equalTo(Iban.valueOf("AT611904300234573201"))));
+        }
+
+        @Test
+        public void tryValueOfWithInvalidIbanShouldReturnNull() {
+            assertThat(Iban.tryValueOf("AT621904300234573201"), is(nullValue()));
+            assertThat(Iban.tryValueOf(null), is(nullValue()));
+        }
+
+        @Test
+        public void tryValueOfWithResultShouldReportViolation() {
+            IbanValidationResult result = new IbanValidationResult();
+            assertThat(Iban.tryValueOf("DE8937040044053201300A", result), is(nullValue()));
+            assertThat(result.isValid(), is(false));
+            assertThat(result.getViolation(), is(equalTo(IbanFormatViolation.BBAN_ONLY_DIGITS)));
+            assertThat(result.getOffset(), is(equalTo(21)));
+            assertThat(result.getInvalidCharacter(), is(equalTo('A')));
+            assertThat(result.getMessage(), is(equalTo("[053201300A] must contain only digits.")));
+        }
+
+        @Test
+        public void tryValueOfWithReusedResultShouldDescribeLastCheck() {
+            IbanValidationResult result = new IbanValidationResult();
+            Iban.tryValueOf("AT621904300234573201", result);
+            assertThat(result.getViolation(), is(equalTo(IbanFormatViolation.CHECK_DIGIT_VALID)));
+            assertThat(result.toException(), is(instanceOf(InvalidCheckDigitException.class)));
+
+            assertThat(Iban.tryValueOf("AT611904300234573201", result), is(notNullValue()));
+            assertThat(result.isValid(), is(true));
+            assertThat(result.getViolation(), is(nullValue()));
+            assertThat(result.getMessage(), is(nullValue()));
+        }
+    }
+
+    public static class IbanByteBufferValueOfTest {
+
+        private static ByteBuffer message(String content) throws Exception {
+            byte[] bytes = content.getBytes("US-ASCII");
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes);
+            buffer.flip();
+            return buffer;
+        }
+
+        @Test
+        public void valueOfBufferRegionShouldReturnIban() throws Exception {
+            ByteBuffer buffer = message("<IBAN>DE89370400440532013000</IBAN>");
+            Iban iban = Iban.valueOf(buffer, 6, 22);
+            assertThat(iban, is(equalTo(Iban.valueOf("DE89370400440532013000"))));
+            assertThat(buffer.position(), is(equalTo(0)));
+        }
+
+        @Test
+        public void valueOfInvalidBufferRegionShouldThrowSameExceptionAsString() throws Exception {
+            ByteBuffer buffer = message("<IBAN>DE89370400440532013001</IBAN>");
+            try {
+                Iban.valueOf(buffer, 6, 22);
+                fail("Expected InvalidCheckDigitException");
+            } catch (InvalidCheckDigitException e) {
+                assertThat(e.getMessage(), is(equalTo("[DE89370400440532013001] has invalid check digit: 89, "
+                        + "expected check digit is: 62")));
+            }
+        }
+
+        @Test
+        public void tryValueOfBufferRegionShouldReturnNullForInvalidIban() throws Exception {
+            ByteBuffer buffer = message("DE89370400440532013000DE89370400440532013001");
+            assertThat(Iban.tryValueOf(buffer, 0, 22), is(notNullValue()));
+            assertThat(Iban.tryValueOf(buffer, 22, 22), is(nullValue()));
+        }
+
+        @Test(expected = IndexOutOfBoundsException.class)
+        public void valueOfRegionBeyondLimitShouldThrowException() throws Exception {
+            Iban.valueOf(message("DE89370400440532013000"), 1, 22);
+        }
     }
 
     public static class IbanGenerationExceptionalTest {
@@ -18,6 +18,8 @@ package org.iban4j;
 import org.hamcrest.Description;
 import org.hamcrest.TypeSafeMatcher;
 import org.iban4j.IbanFormatException.IbanFormatViolation;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
@@ -26,12 +28,18 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 @RunWith(Enclosed.class)
 public class IbanUtilTest {
@@ -108,6 +116,33 @@ public class IbanUtilTest {
         public void formattedIbanValidationWithDefaultFormattingShouldNotThrowException() {
             IbanUtil.validate("AT61 1904 3002 3457 3201", IbanFormat.Default);
         }
+
+        @Test
+        public void messyIbanValidationWithLenientFormattingShouldNotThrowException() {
+            IbanUtil.validate("at61-1904-3002-3457-3201", IbanFormat.Lenient);
+        }
+
+        @Test
+        public void ibanValidationOfSequenceRegionShouldNotThrowException() {
+            IbanUtil.validate(new StringBuilder("iban:AT611904300234573201;"), 5, 20);
+        }
+
+        @Test(expected = IndexOutOfBoundsException.class)
+        public void ibanValidationOfRegionOutOfBoundsShouldThrowException() {
+            IbanUtil.validate("AT611904300234573201", 1, 20);
+        }
+
+        @Test
+        public void ibanValidationOfByteRegionShouldNotThrowException() throws Exception {
+            byte[] bytes = "iban:AT611904300234573201;".getBytes("US-ASCII");
+            IbanUtil.validate(bytes, 5, 20);
+            IbanUtil.validate(ByteBuffer.wrap(bytes), 5, 20);
+        }
+
+        @Test(expected = IndexOutOfBoundsException.class)
+        public void ibanValidationOfByteRegionOutOfBoundsShouldThrowException() {
+            IbanUtil.validate(new byte[20], 1, 20);
+        }
     }
 
     public static class InvalidIbanValidationTest {
@@ -250,6 +285,39 @@ public class IbanUtilTest {
             IbanUtil.validate("IT6010542811101000000123456");
         }
 
+        @Test
+        public void ibanValidationOfSequenceRegionWithInvalidCheckDigitShouldThrowException() {
+            expectedException.expect(InvalidCheckDigitException.class);
+            expectedException.expectMessage("invalid check digit: 62");
+            expectedException.expectMessage("expected check digit is: 61");
+            IbanUtil.validate("xxAT621904300234573201xx", 2, 20);
+        }
+
+        @Test
+        public void ibanValidationOfByteRegionWithInvalidCheckDigitShouldThrowException()
+                throws Exception {
+            expectedException.expect(InvalidCheckDigitException.class);
+            expectedException.expectMessage("[AT621904300234573201] has invalid check digit: 62");
+            IbanUtil.validate("xxAT621904300234573201xx".getBytes("US-ASCII"), 2, 20);
+        }
+
+        @Test
+        public void ibanValidationOfNonAsciiBytesShouldThrowException() {
+            expectedException.expect(IbanFormatException.class);
+            expectedException.expect(new IbanFormatViolationMatcher(IbanFormatViolation.BBAN_ONLY_DIGITS));
+            byte[] bytes = "AT611904300234573201".getBytes();
+            bytes[10] = (byte) 0xB2;
+            IbanUtil.validate(ByteBuffer.wrap(bytes), 0, bytes.length);
+        }
+
+        @Test
+        public void ibanValidationOfSequenceRegionWithInvalidBbanLengthShouldThrowException() {
+            expectedException.expect(IbanFormatException.class);
+            expectedException.expect(new IbanFormatViolationMatcher(IbanFormatViolation.BBAN_LENGTH));
+            expectedException.expect(new IbanFormatExceptionActualValueMatcher(15));
+            IbanUtil.validate("AT611904300234573201", 0, 19);
+        }
+
         @Test
         public void unformattedIbanValidationWithDefaultFormattingShouldThrowException() {
             expectedException.expect(IbanFormatException.class);
@@ -308,6 +376,224 @@ public class IbanUtilTest {
         }
     }
 
+    public static class StacklessExceptionTest {
+
+        @After
+        public void enableStackTraces() {
+            Iban4jException.setStackTraceEnabled(true);
+        }
+
+        @Test
+        public void exceptionShouldHaveStackTraceByDefault() {
+            try {
+                IbanUtil.validate("AT621904300234573201");
+                fail("exception expected");
+            } catch (InvalidCheckDigitException e) {
+                assertThat(e.getStackTrace().length, is(not(equalTo(0))));
+            }
+        }
+
+        @Test
+        public void exceptionShouldHaveNoStackTraceIfDisabled() {
+            Iban4jException.setStackTraceEnabled(false);
+            try {
+                IbanUtil.validate("AT621904300234573201");
+                fail("exception expected");
+            } catch (InvalidCheckDigitException e) {
+                assertThat(e.getStackTrace().length, is(equalTo(0)));
+                assertThat(e.getMessage(), is(equalTo("[AT621904300234573201] has invalid check digit: 62, " +
+                        "expected check digit is: 61")));
+                assertThat(e.getActual(), is(equalTo("62")));
+            }
+        }
+
+        @Test
+        public void lazyMessageShouldBeFormattedOnce() {
+            try {
+                IbanUtil.validate("AT6119043002345732");
+                fail("exception expected");
+            } catch (IbanFormatException e) {
+                assertThat(e.getMessage(), is(equalTo("[19043002345732] length is 14, expected BBAN length is: 16")));
+                assertThat(e.getMessage(), is(sameInstance(e.getMessage())));
+                assertThat(e.toString(), containsString(e.getMessage()));
+            }
+        }
+    }
+
+    public static class CheckTest {
+
+        @Test
+        public void checkOfValidIbanShouldReturnValidResult() {
+            IbanValidationResult result = IbanUtil.check("AT611904300234573201");
+            assertThat(result.isValid(), is(true));
+            assertThat(result.getOffset(), is(equalTo(-1)));
+        }
+
+        @Test
+        public void checkOfLowercaseCountryShouldReportOffendingCharacter() {
+            IbanValidationResult result = IbanUtil.check("At611904300234573201");
+            assertThat(result.getViolation(),
+                    is(equalTo(IbanFormatViolation.COUNTRY_CODE_UPPER_CASE_LETTERS)));
+            assertThat(result.getOffset(), is(equalTo(1)));
+            assertThat(result.getInvalidCharacter(), is(equalTo('t')));
+        }
+
+        @Test
+        public void checkOfRegionShouldReportOffsetWithinIban() {
+            IbanValidationResult result = new IbanValidationResult();
+            boolean valid = IbanUtil.check("iban:AT611904300234573201", 5, 19, result);
+            assertThat(valid, is(false));
+            assertThat(result.getViolation(), is(equalTo(IbanFormatViolation.BBAN_LENGTH)));
+            assertThat(result.getOffset(), is(equalTo(19)));
+            assertThat(result.getMessage(), containsString("expected BBAN length is: 16"));
+        }
+
+        @Test
+        public void checkOfUnsupportedCountryShouldCreateUnsupportedCountryException() {
+            IbanValidationResult result = IbanUtil.check("AM611904300234573201");
+            assertThat(result.getViolation(),
+                    is(equalTo(IbanFormatViolation.COUNTRY_CODE_SUPPORTED)));
+            assertThat(result.toException(), is(instanceOf(UnsupportedCountryException.class)));
+        }
+
+        @Test
+        public void resultShouldNotChangeWhenCheckedSequenceIsReused() {
+            IbanValidationResult result = new IbanValidationResult();
+            StringBuilder iban = new StringBuilder("AT611904300234573201");
+            iban.setCharAt(10, 'x');
+            assertThat(IbanUtil.check(iban, 0, iban.length(), result), is(false));
+            String message = result.getMessage();
+            iban.setLength(0);
+            iban.append("DE89370400440532013000");
+            assertThat(result.getInvalidCharacter(), is(equalTo('x')));
+            assertThat(result.getOffset(), is(equalTo(10)));
+            assertThat(result.getMessage(), is(equalTo(message)));
+        }
+    }
+
+    public static class BatchValidationTest {
+
+        static final String[] IBANS = {
+                "AT611904300234573201",
+                null,
+                "AT621904300234573201",
+                "AM611904300234573201",
+                "DE89370400440532013000",
+                "AT61190430023457320",
+                "at611904300234573201",
+        };
+
+        @Test
+        public void batchValidationShouldMarkValidIbans() {
+            IbanBatchResult result = IbanUtil.validateAll(IBANS);
+            assertThat(result.size(), is(equalTo(7)));
+            assertThat(result.getValidCount(), is(equalTo(2)));
+            assertThat(result.getInvalidCount(), is(equalTo(5)));
+            assertThat(result.isValid(0), is(true));
+            assertThat(result.isValid(4), is(true));
+            assertThat(result.getViolation(0), is(nullValue()));
+            assertThat(result.getViolations()[4], is(equalTo(IbanBatchResult.VALID)));
+        }
+
+        @Test
+        public void batchValidationShouldReportViolations() {
+            IbanBatchResult result = IbanUtil.validateAll(IBANS);
+            assertThat(result.getViolation(1), is(equalTo(IbanFormatViolation.IBAN_NOT_NULL)));
+            assertThat(result.getViolation(2), is(equalTo(IbanFormatViolation.CHECK_DIGIT_VALID)));
+            assertThat(result.getViolation(3), is(equalTo(IbanFormatViolation.COUNTRY_CODE_SUPPORTED)));
+            assertThat(result.getViolation(5), is(equalTo(IbanFormatViolation.BBAN_LENGTH)));
+            assertThat(result.getViolation(6),
+                    is(equalTo(IbanFormatViolation.COUNTRY_CODE_UPPER_CASE_LETTERS)));
+        }
+
+        @Test
+        public void batchValidationOfRangeShouldIndexRelativeToRangeStart() {
+            IbanBatchResult result = IbanUtil.validateAll(IBANS, 2, 5);
+            assertThat(result.size(), is(equalTo(3)));
+            assertThat(result.getValidEntries().nextSetBit(0), is(equalTo(2)));
+        }
+
+        @Test
+        public void batchValidationOfListShouldMatchArrayValidation() {
+            IbanBatchResult result = IbanUtil.validateAll(Arrays.<CharSequence>asList(IBANS));
+            assertThat(result.getViolations(), is(equalTo(IbanUtil.validateAll(IBANS).getViolations())));
+        }
+    }
+
+    public static class ParallelValidationTest {
+
+        private static final String[] IBANS = BatchValidationTest.IBANS;
+
+        private ExecutorService executor;
+
+        @Before
+        public void setUp() {
+            executor = Executors.newFixedThreadPool(4);
+        }
+
+        @After
+        public void tearDown() {
+            executor.shutdownNow();
+        }
+
+        @Test
+        public void parallelValidationShouldCountViolationsAndCountries() throws Exception {
+            IbanStatistics statistics = IbanUtil.validateInParallel(IBANS, executor);
+            assertThat(statistics.getCount(), is(equalTo(7L)));
+            assertThat(statistics.getValidCount(), is(equalTo(2L)));
+            assertThat(statistics.getInvalidCount(), is(equalTo(5L)));
+            assertThat(statistics.getCount(IbanFormatViolation.CHECK_DIGIT_VALID), is(equalTo(1L)));
+            assertThat(statistics.getCount(IbanFormatViolation.IBAN_NOT_NULL), is(equalTo(1L)));
+            assertThat(statistics.getCount(CountryCode.AT), is(equalTo(4L)));
+            assertThat(statistics.getValidCount(CountryCode.AT), is(equalTo(1L)));
+            assertThat(statistics.getCount(CountryCode.AM), is(equalTo(1L)));
+        }
+
+        @Test
+        public void parallelValidationOfManyChunksShouldMergeCounts() throws Exception {
+            final int chunks = 5;
+            final List<CharSequence> ibans = new ArrayList<CharSequence>();
+            for (int i = 0; i < IbanUtil.PARALLEL_CHUNK_SIZE * chunks / IBANS.length + 1; i++) {
+                ibans.addAll(Arrays.asList(IBANS));
+            }
+            final IbanBatchResult expected = IbanUtil.validateAll(ibans);
+
+            IbanStatistics fromList = IbanUtil.validateInParallel(ibans, executor);
+            IbanStatistics fromArray = IbanUtil.validateInParallel(
+                    ibans.toArray(new CharSequence[ibans.size()]), executor);
+            assertThat(fromList.getCount(), is(equalTo((long) ibans.size())));
+            assertThat(fromList.getValidCount(), is(equalTo((long) expected.getValidCount())));
+            assertThat(fromArray.toString(), is(equalTo(fromList.toString())));
+        }
+
+        @Test
+        public void parallelValidationShouldSubmitAtMostOneTaskPerProcessor() throws Exception {
+            final int size = IbanUtil.PARALLEL_CHUNK_SIZE * 20;
+            final CharSequence[] ibans = new CharSequence[size];
+            for (int i = 0; i < size; i++) {
+                ibans[i] = IBANS[i % IBANS.length];
+            }
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            IbanStatistics statistics = IbanUtil.validateInParallel(ibans, 3, size - 1, executor);
+            assertThat(statistics.getCount(), is(equalTo((long) size - 4)));
+            assertThat(statistics.getValidCount(), is(equalTo((long) IbanUtil.validateAll(
+                    Arrays.asList(ibans).subList(3, size - 1)).getValidCount())));
+            assertThat(pool.getTaskCount() <= Runtime.getRuntime().availableProcessors(), is(true));
+        }
+
+        @Test
+        public void parallelValidationOfRangeShouldCountRangeOnly() throws Exception {
+            IbanStatistics statistics = IbanUtil.validateInParallel(IBANS, 2, 5, executor);
+            assertThat(statistics.getCount(), is(equalTo(3L)));
+            assertThat(statistics.getValidCount(), is(equalTo(1L)));
+        }
+
+        @Test(expected = IndexOutOfBoundsException.class)
+        public void parallelValidationOfInvalidRangeShouldThrowException() throws Exception {
+            IbanUtil.validateInParallel(IBANS, 5, 2, executor);
+        }
+    }
+
     @RunWith(Parameterized.class)
     public static class IbanLengthTest {
 
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Collection;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Enclosed.class)
+public class Mod97Test {
+
+    @RunWith(Parameterized.class)
+    public static class ValidIbanModTest {
+
+        private final String ibanString;
+
+        public ValidIbanModTest(Iban iban, String ibanString) {
+            this.ibanString = ibanString;
+        }
+
+        @Test
+        public void modOfValidIbanShouldBeOne() {
+            assertThat(Mod97.calculate(ibanString, 0, ibanString.length()), is(equalTo(1)));
+        }
+
+        @Test
+        public void modOfCharArrayShouldBeOne() {
+            final char[] chars = ("  " + ibanString).toCharArray();
+            assertThat(Mod97.calculate(chars, 2, ibanString.length()), is(equalTo(1)));
+        }
+
+        @Test
+        public void modOfAsciiBytesShouldBeOne() {
+            final byte[] bytes = ("  " + ibanString).getBytes();
+            assertThat(Mod97.calculate(bytes, 2, ibanString.length()), is(equalTo(1)));
+        }
+
+        @Test
+        public void checkDigitCalculationShouldReturnIbansCheckDigit() {
+            final int checkDigit = Integer.parseInt(ibanString.substring(2, 4));
+            assertThat(Mod97.calculateCheckDigit(ibanString, 0, ibanString.length()),
+                    is(equalTo(checkDigit)));
+            assertThat(Mod97.calculateCheckDigit(ibanString.toCharArray(), 0, ibanString.length()),
+                    is(equalTo(checkDigit)));
+            assertThat(Mod97.calculateCheckDigit(ibanString.getBytes(), 0, ibanString.length()),
+                    is(equalTo(checkDigit)));
+        }
+
+        @Parameterized.Parameters
+        public static Collection<Object[]> ibanParameters() {
+            return TestDataHelper.getIbanData();
+        }
+    }
+
+    public static class DefaultMod97Test {
+
+        @Test
+        public void checkDigitCalculationShouldIgnoreCurrentCheckDigit() {
+            assertThat(Mod97.calculateCheckDigit("DE00370400440532013000", 0, 22), is(equalTo(89)));
+        }
+
+        @Test
+        public void modOfIbanWithInvalidCheckDigitShouldNotBeOne() {
+            assertThat(Mod97.calculate("AT621904300234573201", 0, 20), is(equalTo(2)));
+        }
+
+        @Test
+        public void lowerCaseLettersShouldHaveUpperCaseValues() {
+            assertThat(Mod97.calculate("GB29nwbk60161331926819", 0, 22), is(equalTo(1)));
+        }
+
+        @Test(expected = IbanFormatException.class)
+        public void modOfNonAsciiBytesShouldThrowException() {
+            final byte[] bytes = "AT611904300234573201".getBytes();
+            bytes[10] = (byte) 0xB2;
+            Mod97.calculate(bytes, 0, bytes.length);
+        }
+
+        @Test(expected = IbanFormatException.class)
+        public void modOfTooShortIbanShouldThrowException() {
+            Mod97.calculate("AT6", 0, 3);
+        }
+
+        @Test(expected = IndexOutOfBoundsException.class)
+        public void modOfRegionOutOfBoundsShouldThrowException() {
+            Mod97.calculate("AT611904300234573201".toCharArray(), 4, 20);
+        }
+    }
+}
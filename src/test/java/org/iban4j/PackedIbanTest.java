@@ -0,0 +1,132 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j;
+
+import org.iban4j.bban.BbanStructure;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Collection;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Enclosed.class)
+public class PackedIbanTest {
+
+    @RunWith(Parameterized.class)
+    public static class PackedIbanRoundTripTest {
+
+        private final Iban iban;
+        private final String ibanString;
+
+        public PackedIbanRoundTripTest(Iban iban, String ibanString) {
+            this.iban = iban;
+            this.ibanString = ibanString;
+        }
+
+        @Test
+        public void packedIbanShouldUnpackToSameIban() {
+            PackedIban packed = PackedIban.valueOf(iban);
+            assertThat(packed.toString(), is(equalTo(ibanString)));
+            assertThat(packed.toIban(), is(equalTo(iban)));
+            assertThat(packed.toFormattedString(), is(equalTo(iban.toFormattedString())));
+            assertThat(packed.getCountryCode(), is(equalTo(iban.getCountryCode())));
+            assertThat(packed.getCheckDigit(), is(equalTo(Integer.parseInt(iban.getCheckDigit()))));
+        }
+
+        @Test
+        public void packedIbansOfSameValueShouldBeEqual() {
+            PackedIban packed = PackedIban.valueOf(ibanString);
+            assertThat(packed, is(equalTo(PackedIban.valueOf(iban))));
+            assertThat(packed.hashCode(), is(equalTo(PackedIban.valueOf(iban).hashCode())));
+            assertThat(PackedIban.fromWords(packed.getWord(0), packed.getWord(1), packed.getWord(2)),
+                    is(equalTo(packed)));
+        }
+
+        @Parameterized.Parameters
+        public static Collection<Object[]> ibanParameters() {
+            return TestDataHelper.getIbanData();
+        }
+    }
+
+    public static class DefaultPackedIbanTest {
+
+        @Test
+        public void randomIbansOfEveryCountryShouldRoundTrip() {
+            for (CountryCode countryCode : BbanStructure.supportedCountries()) {
+                for (int i = 0; i < 10; i++) {
+                    Iban iban = Iban.random(countryCode);
+                    assertThat(PackedIban.valueOf(iban).toIban(), is(equalTo(iban)));
+                }
+            }
+        }
+
+        @Test
+        public void ibansDifferingInLastCharacterShouldNotBeEqual() {
+            PackedIban first = PackedIban.valueOf("DE89370400440532013000");
+            PackedIban second = PackedIban.valueOf("DE62370400440532013001");
+            assertThat(first, is(not(equalTo(second))));
+        }
+
+        @Test
+        public void lowerCaseIbanShouldPackLikeUpperCase() {
+            PackedIban lowerCase = PackedIban.valueOf("IT54X0542811101xyz000123456");
+            assertThat(lowerCase, is(equalTo(PackedIban.valueOf("IT54X0542811101XYZ000123456"))));
+            assertThat(lowerCase.getCheckDigit(), is(equalTo(54)));
+            assertThat(lowerCase.toIban(), is(equalTo(Iban.valueOf("IT54X0542811101XYZ000123456"))));
+            assertThat(PackedIban.valueOf(Iban.valueOf("IT54X0542811101xyz000123456")),
+                    is(equalTo(lowerCase)));
+        }
+
+        @Test
+        public void nonAsciiDigitsShouldPackLikeAsciiDigits() {
+            String iban = "IT54X0542811101xyz\uFF10\uFF10\uFF10123456";
+            PackedIban packed = PackedIban.valueOf(iban);
+            assertThat(packed.getCountryCode(), is(equalTo(CountryCode.IT)));
+            assertThat(packed.toString(), is(equalTo("IT54X0542811101XYZ000123456")));
+        }
+
+        @Test(expected = IbanFormatException.class)
+        public void packingInvalidIbanShouldThrowException() {
+            PackedIban.valueOf("DE89370400440532013");
+        }
+
+        @Test(expected = InvalidCheckDigitException.class)
+        public void packingIbanWithInvalidCheckDigitShouldThrowException() {
+            PackedIban.valueOf("DE88370400440532013000");
+        }
+
+        @Test(expected = IllegalArgumentException.class)
+        public void wordsWithoutCountryShouldThrowException() {
+            PackedIban.fromWords(0, 0, 0);
+        }
+
+        @Test
+        public void packableRegionShouldHaveCountryBbanLengthAndCharacters() {
+            assertThat(PackedIban.isPackable("xDE89370400440532013000", 1, 22), is(true));
+            assertThat(PackedIban.isPackable("DE89370400440532013000", 0, 21), is(false));
+            assertThat(PackedIban.isPackable("DE8937040044053201300+", 0, 22), is(false));
+            assertThat(PackedIban.isPackable("GB29nwbk60161331926819", 0, 22), is(true));
+            assertThat(PackedIban.isPackable("DEx9370400440532013000", 0, 22), is(false));
+            assertThat(PackedIban.isPackable("AM89370400440532013000", 0, 22), is(false));
+        }
+    }
+}
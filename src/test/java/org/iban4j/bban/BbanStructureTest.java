@@ -0,0 +1,85 @@
+/*
+ * Copyright 2013 Artur Mkrtchyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.iban4j.bban;
+
+import org.iban4j.CountryCode;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class BbanStructureTest {
+
+    // GB: bank code 4a, branch code 6n, account number 8n
+    private final BbanStructure structure = BbanStructure.forCountry(CountryCode.GB);
+
+    @Test
+    public void bbanLengthShouldBeSumOfEntryLengths() {
+        assertThat(structure.getBbanLength(), is(equalTo(18)));
+    }
+
+    @Test
+    public void forAlpha2ShouldReturnSameStructureAsForCountry() {
+        for (CountryCode countryCode : CountryCode.values()) {
+            String alpha2 = countryCode.getAlpha2();
+            assertThat(BbanStructure.forAlpha2(alpha2.charAt(0), alpha2.charAt(1)),
+                    is(BbanStructure.forCountry(countryCode)));
+        }
+    }
+
+    @Test
+    public void forAlpha2WithLowerCaseOrNonLettersShouldReturnNull() {
+        assertThat(BbanStructure.forAlpha2('g', 'b'), is(nullValue()));
+        assertThat(BbanStructure.forAlpha2('G', '1'), is(nullValue()));
+        assertThat(BbanStructure.forAlpha2('[', 'B'), is(nullValue()));
+    }
+
+    @Test
+    public void entryOffsetsShouldBePrecomputedPerEntryType() {
+        assertThat(structure.getEntryOffset(BbanEntryType.branch_code), is(equalTo(4)));
+        assertThat(structure.getEntryLength(BbanEntryType.branch_code), is(equalTo(6)));
+        assertThat(structure.getEntryOffset(BbanEntryType.account_number), is(equalTo(10)));
+        assertThat(structure.getEntryOffset(BbanEntryType.currency), is(equalTo(-1)));
+        assertThat(structure.getEntryLength(BbanEntryType.currency), is(equalTo(0)));
+    }
+
+    @Test
+    public void entryAtPositionShouldReturnContainingEntry() {
+        assertThat(structure.getEntryAt(3).getEntryType(), is(equalTo(BbanEntryType.bank_code)));
+        assertThat(structure.getEntryAt(4).getEntryType(), is(equalTo(BbanEntryType.branch_code)));
+        assertThat(structure.getEntryAt(17).getEntryType(), is(equalTo(BbanEntryType.account_number)));
+        assertThat(structure.getEntryAt(18), is(nullValue()));
+    }
+
+    @Test
+    public void validBbanShouldHaveNoInvalidCharacter() {
+        assertThat(structure.indexOfInvalidCharacter("GB29NWBK60161331926819", 4), is(equalTo(-1)));
+    }
+
+    @Test
+    public void invalidCharacterShouldBeFoundByItsEntryType() {
+        assertThat(structure.indexOfInvalidCharacter("NwBK60161331926819", 0), is(equalTo(1)));
+        assertThat(structure.indexOfInvalidCharacter("NWBK6016133192681A", 0), is(equalTo(17)));
+    }
+
+    @Test
+    public void nonAsciiCharactersShouldBeClassifiedByUnicodeCategory() {
+        assertThat(structure.indexOfInvalidCharacter("NWBK60161331926\u0661\u0662\u0663", 0), is(equalTo(-1)));
+        assertThat(structure.indexOfInvalidCharacter("NWB\u00e960161331926819", 0), is(equalTo(3)));
+    }
+}